@@ -0,0 +1,11 @@
+-- Migration: Index updated_at for catalog delta sync
+-- Description: /api/catalog/changes?since=<version> filters categories, products and hamper_boxes
+--              by updated_at, and the catalog version is initialised from MAX(updated_at)
+
+CREATE INDEX IF NOT EXISTS idx_categories_updated_at ON categories(updated_at);
+CREATE INDEX IF NOT EXISTS idx_products_updated_at ON products(updated_at);
+CREATE INDEX IF NOT EXISTS idx_hamper_boxes_updated_at ON hamper_boxes(updated_at);
+
+ANALYZE categories;
+ANALYZE products;
+ANALYZE hamper_boxes;
@@ -0,0 +1,8 @@
+-- Migration: Add screenshot digest to order_hampers table
+-- Multipart checkouts upload the hamper screenshot as a binary part, store it as an image file
+-- and keep its URL in screenshot; the SHA-256 of the stored file is recorded alongside it
+
+ALTER TABLE order_hampers
+ADD COLUMN IF NOT EXISTS screenshot_sha256 VARCHAR(64);
+
+COMMENT ON COLUMN order_hampers.screenshot_sha256 IS 'SHA-256 (hex) of the uploaded screenshot file';
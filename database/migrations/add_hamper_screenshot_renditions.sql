@@ -0,0 +1,16 @@
+-- Migration: Add processed screenshot renditions to order_hampers table
+-- Uploaded screenshots are transcoded in the background to a compressed JPEG plus a small
+-- thumbnail for the admin order list; their URLs and stored sizes are recorded here
+
+ALTER TABLE order_hampers
+ADD COLUMN IF NOT EXISTS screenshot_thumbnail VARCHAR(500);
+
+ALTER TABLE order_hampers
+ADD COLUMN IF NOT EXISTS screenshot_size BIGINT;
+
+ALTER TABLE order_hampers
+ADD COLUMN IF NOT EXISTS screenshot_thumbnail_size BIGINT;
+
+COMMENT ON COLUMN order_hampers.screenshot_thumbnail IS 'URL of the JPEG thumbnail of the screenshot';
+COMMENT ON COLUMN order_hampers.screenshot_size IS 'Stored size in bytes of the screenshot image';
+COMMENT ON COLUMN order_hampers.screenshot_thumbnail_size IS 'Stored size in bytes of the thumbnail';
@@ -0,0 +1,11 @@
+-- Migration: Index customer order history
+-- Description: /api/orders/customer/{phone} reads a customer's newest orders first and pages
+--              with a (created_at, id) keyset cursor. The composite index serves both the
+--              lookup and the ordering, and replaces the single-column customer_phone index.
+
+CREATE INDEX IF NOT EXISTS idx_orders_customer_phone_created_at
+    ON orders(customer_phone, created_at DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_orders_customer_phone;
+
+ANALYZE orders;
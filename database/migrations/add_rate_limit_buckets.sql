@@ -0,0 +1,14 @@
+-- Migration: Add rate_limit_buckets table for cluster-wide rate limiting
+-- Description: One token bucket per route and client, shared by all instances when
+--              app.rate-limit.mode=jdbc. Updated with compare-and-set on version;
+--              rows idle past idle_until (epoch millis) are deleted by the application.
+
+CREATE TABLE IF NOT EXISTS rate_limit_buckets (
+    bucket_key VARCHAR(255) PRIMARY KEY,
+    tokens BIGINT NOT NULL,
+    window_start BIGINT NOT NULL,
+    idle_until BIGINT NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS idx_rate_limit_buckets_idle_until ON rate_limit_buckets(idle_until);
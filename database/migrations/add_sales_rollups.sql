@@ -0,0 +1,40 @@
+-- Migration: Add sales_rollups summary table for the admin dashboard
+-- Description: Per-day totals by order status, by channel (DIRECT items vs HAMPER) and by product,
+--              maintained incrementally by the application and rebuildable from orders via
+--              POST /api/admin/dashboard/sales/rebuild
+
+CREATE TABLE IF NOT EXISTS sales_rollups (
+    id BIGSERIAL PRIMARY KEY,
+    rollup_date DATE NOT NULL,
+    dimension VARCHAR(30) NOT NULL,
+    dimension_key VARCHAR(100) NOT NULL,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    units BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(12, 2) NOT NULL DEFAULT 0.00,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_sales_rollups_day_dimension_key UNIQUE (rollup_date, dimension, dimension_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_sales_rollups_dimension_date ON sales_rollups(dimension, rollup_date);
+
+-- Initial fill from existing orders (same statements the rebuild endpoint runs)
+DELETE FROM sales_rollups;
+
+INSERT INTO sales_rollups (rollup_date, dimension, dimension_key, order_count, units, revenue)
+SELECT CAST(o.created_at AS DATE), 'STATUS', o.status, COUNT(*), 0, SUM(o.total_amount)
+FROM orders o GROUP BY CAST(o.created_at AS DATE), o.status;
+
+INSERT INTO sales_rollups (rollup_date, dimension, dimension_key, order_count, units, revenue)
+SELECT CAST(o.created_at AS DATE), 'CHANNEL', 'DIRECT', COUNT(DISTINCT o.id), SUM(oi.quantity), SUM(oi.total_price)
+FROM orders o JOIN order_items oi ON oi.order_id = o.id GROUP BY CAST(o.created_at AS DATE);
+
+INSERT INTO sales_rollups (rollup_date, dimension, dimension_key, order_count, units, revenue)
+SELECT CAST(o.created_at AS DATE), 'CHANNEL', 'HAMPER', COUNT(DISTINCT o.id), COUNT(oh.id), SUM(oh.total_price)
+FROM orders o JOIN order_hampers oh ON oh.order_id = o.id GROUP BY CAST(o.created_at AS DATE);
+
+INSERT INTO sales_rollups (rollup_date, dimension, dimension_key, order_count, units, revenue)
+SELECT CAST(o.created_at AS DATE), 'PRODUCT', CAST(oi.product_id AS VARCHAR(100)), COUNT(DISTINCT o.id), SUM(oi.quantity), SUM(oi.total_price)
+FROM orders o JOIN order_items oi ON oi.order_id = o.id GROUP BY CAST(o.created_at AS DATE), oi.product_id;
+
+SELECT dimension, COUNT(*) AS rows FROM sales_rollups GROUP BY dimension;
@@ -18,6 +18,7 @@ CREATE TABLE IF NOT EXISTS categories (
 
 CREATE INDEX IF NOT EXISTS idx_categories_active ON categories(active);
 CREATE INDEX IF NOT EXISTS idx_categories_display_order ON categories(display_order);
+CREATE INDEX IF NOT EXISTS idx_categories_updated_at ON categories(updated_at);
 
 -- Products Table
 CREATE TABLE IF NOT EXISTS products (
@@ -46,6 +47,7 @@ CREATE TABLE IF NOT EXISTS products (
 CREATE INDEX IF NOT EXISTS idx_products_category ON products(category_id);
 CREATE INDEX IF NOT EXISTS idx_products_active ON products(active);
 CREATE INDEX IF NOT EXISTS idx_products_type ON products(product_type);
+CREATE INDEX IF NOT EXISTS idx_products_updated_at ON products(updated_at);
 
 -- Hamper Boxes Table
 CREATE TABLE IF NOT EXISTS hamper_boxes (
@@ -69,6 +71,7 @@ CREATE TABLE IF NOT EXISTS hamper_boxes (
 CREATE INDEX IF NOT EXISTS idx_hamper_boxes_active ON hamper_boxes(active);
 CREATE INDEX IF NOT EXISTS idx_hamper_boxes_size ON hamper_boxes(size);
 CREATE INDEX IF NOT EXISTS idx_hamper_boxes_dimensions ON hamper_boxes(length_cm, width_cm, height_cm);
+CREATE INDEX IF NOT EXISTS idx_hamper_boxes_updated_at ON hamper_boxes(updated_at);
 
 -- Orders Table
 CREATE TABLE IF NOT EXISTS orders (
@@ -93,7 +96,7 @@ CREATE TABLE IF NOT EXISTS orders (
 
 CREATE INDEX IF NOT EXISTS idx_orders_number ON orders(order_number);
 CREATE INDEX IF NOT EXISTS idx_orders_status ON orders(status);
-CREATE INDEX IF NOT EXISTS idx_orders_customer_phone ON orders(customer_phone);
+CREATE INDEX IF NOT EXISTS idx_orders_customer_phone_created_at ON orders(customer_phone, created_at DESC, id DESC);
 CREATE INDEX IF NOT EXISTS idx_orders_delivery_date ON orders(delivery_date);
 
 -- Order Items Table
@@ -127,6 +130,10 @@ CREATE TABLE IF NOT EXISTS order_hampers (
     hamper_data TEXT NOT NULL,
     hamper_name VARCHAR(200),
     screenshot TEXT,
+    screenshot_sha256 VARCHAR(64),
+    screenshot_thumbnail VARCHAR(500),
+    screenshot_size BIGINT,
+    screenshot_thumbnail_size BIGINT,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     CONSTRAINT fk_order_hampers_order FOREIGN KEY (order_id) REFERENCES orders(id) ON DELETE CASCADE,
@@ -151,6 +158,33 @@ CREATE TABLE IF NOT EXISTS admins (
 CREATE INDEX IF NOT EXISTS idx_admins_username ON admins(username);
 CREATE INDEX IF NOT EXISTS idx_admins_active ON admins(active);
 
+-- Sales Rollups Table (per-day dashboard totals by status, channel and product)
+CREATE TABLE IF NOT EXISTS sales_rollups (
+    id BIGSERIAL PRIMARY KEY,
+    rollup_date DATE NOT NULL,
+    dimension VARCHAR(30) NOT NULL,
+    dimension_key VARCHAR(100) NOT NULL,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    units BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(12, 2) NOT NULL DEFAULT 0.00,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_sales_rollups_day_dimension_key UNIQUE (rollup_date, dimension, dimension_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_sales_rollups_dimension_date ON sales_rollups(dimension, rollup_date);
+
+-- Rate Limit Buckets Table (token buckets shared by all instances in jdbc rate limit mode)
+CREATE TABLE IF NOT EXISTS rate_limit_buckets (
+    bucket_key VARCHAR(255) PRIMARY KEY,
+    tokens BIGINT NOT NULL,
+    window_start BIGINT NOT NULL,
+    idle_until BIGINT NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS idx_rate_limit_buckets_idle_until ON rate_limit_buckets(idle_until);
+
 -- Function to update updated_at timestamp
 CREATE OR REPLACE FUNCTION update_updated_at_column()
 RETURNS TRIGGER AS $$
@@ -136,20 +136,29 @@ export default function ProductFormModal({ product, categories, onClose }) {
     }
   };
 
+  // Send the raw image bytes with their SHA-256; the server stores images by content hash,
+  // so an image that is already stored is reused instead of being written again
+  const uploadImageFile = async (file) => {
+    const digest = await crypto.subtle.digest('SHA-256', await file.arrayBuffer());
+    const sha256 = Array.from(new Uint8Array(digest))
+      .map(byte => byte.toString(16).padStart(2, '0'))
+      .join('');
+
+    return api.post('/products/upload-image', file, {
+      headers: {
+        'Content-Type': file.type,
+        'X-Content-SHA256': sha256,
+      },
+    });
+  };
+
   // Upload image to server
   const uploadImage = async () => {
     if (!selectedFile) return null;
 
     setUploadingImage(true);
     try {
-      const formData = new FormData();
-      formData.append('image', selectedFile);
-
-      const response = await api.post('/products/upload-image', formData, {
-        headers: {
-          'Content-Type': 'multipart/form-data',
-        },
-      });
+      const response = await uploadImageFile(selectedFile);
 
       toast.success('Image uploaded successfully');
       return response.data.imageUrl; // Return the uploaded image URL
@@ -194,14 +203,7 @@ export default function ProductFormModal({ product, categories, onClose }) {
       }
 
       try {
-        const formData = new FormData();
-        formData.append('image', file);
-
-        const response = await api.post('/products/upload-image', formData, {
-          headers: {
-            'Content-Type': 'multipart/form-data',
-          },
-        });
+        const response = await uploadImageFile(file);
 
         uploadedUrls.push(response.data.imageUrl);
       } catch (error) {
@@ -25,18 +25,17 @@ export default function AdminDashboard() {
 
   const fetchStats = async () => {
     try {
-      const [products, categories, hamperBoxes, orders] = await Promise.all([
-        api.get('/products'),
-        api.get('/categories'),
-        api.get('/hamper-boxes'),
-        api.get('/orders')
+      // Order totals come from the server-side sales rollups instead of downloading every order
+      const [bootstrap, sales] = await Promise.all([
+        api.get('/bootstrap'),
+        api.get('/admin/dashboard/sales', { params: { from: '2020-01-01' } })
       ]);
 
       setStats({
-        totalProducts: products.data.length,
-        totalCategories: categories.data.length,
-        totalOrders: orders.data.length,
-        totalHamperBoxes: hamperBoxes.data.length
+        totalProducts: bootstrap.data.products.length,
+        totalCategories: bootstrap.data.categories.length,
+        totalOrders: Object.values(sales.data.byStatus).reduce((sum, totals) => sum + totals.orders, 0),
+        totalHamperBoxes: bootstrap.data.hamperBoxes.length
       });
     } catch (error) {
       console.error('Failed to fetch stats:', error);
@@ -220,6 +220,21 @@ export default function AdminOrdersPage() {
                     </div>
                   </div>
 
+                  {/* Hamper arrangement thumbnails - full images are in the expanded details */}
+                  {order.orderHampers?.some(hamper => hamper.screenshotThumbnail) && (
+                    <div className="flex gap-2 mb-4 overflow-x-auto">
+                      {order.orderHampers.filter(hamper => hamper.screenshotThumbnail).map(hamper => (
+                        <img
+                          key={hamper.id}
+                          src={hamper.screenshotThumbnail}
+                          alt={`${hamper.hamperName || 'Hamper'} arrangement`}
+                          loading="lazy"
+                          className="h-20 w-auto rounded-lg border border-gray-200 shadow-sm"
+                        />
+                      ))}
+                    </div>
+                  )}
+
                   {/* Mobile-Friendly Action Buttons */}
                   <div className="flex flex-col sm:flex-row items-stretch sm:items-center justify-between gap-3">
                     <button
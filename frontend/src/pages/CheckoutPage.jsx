@@ -4,6 +4,7 @@ import { useNavigate, useLocation } from 'react-router-dom';
 import { ShoppingBag, CreditCard, MapPin, User, Mail, Phone, CheckCircle, Truck, Package, ArrowLeft } from 'lucide-react';
 import toast from 'react-hot-toast';
 import api from '../config/api';
+import { base64ToBlob } from '../utils/hamperScreenshot';
 
 export default function CheckoutPage() {
   const { cartItems, hampers, getCartTotal, clearCart } = useCart();
@@ -110,13 +111,25 @@ export default function CheckoutPage() {
             boxPrice: hamper.boxPrice,
             grandTotal: hamper.grandTotal
           }),
-          hamperName: hamper.hamperName,
-          screenshot: hamper.screenshot
+          hamperName: hamper.hamperName
         }))
       };
 
+      // Send screenshots as binary parts ("screenshot-{index}") instead of base64 inside the JSON
+      const formPayload = new FormData();
+      formPayload.append('order', new Blob([JSON.stringify(orderData)], { type: 'application/json' }));
+      hampers.forEach((hamper, index) => {
+        if (hamper.screenshot && hamper.screenshot.startsWith('data:')) {
+          formPayload.append(`screenshot-${index}`, base64ToBlob(hamper.screenshot), `hamper-${index}.png`);
+        }
+      });
+
       // Submit order to backend
-      const response = await api.post('/orders/create', orderData);
+      const response = await api.post('/orders/create', formPayload, {
+        headers: {
+          'Content-Type': 'multipart/form-data',
+        },
+      });
 
       if (response.data) {
         setOrderNumber(response.data.orderNumber);
@@ -2,6 +2,7 @@ import { Link, useNavigate } from 'react-router-dom';
 import { useState, useEffect } from 'react';
 import { Gift, Sparkles, Heart, ShoppingBag, Package, Star, CheckCircle, Users, Award, Plus, Filter, MessageCircle, Phone, Mail } from 'lucide-react';
 import api from '../config/api';
+import { getImageSrcSet, PRODUCT_CARD_SIZES } from '../utils/imageUtils';
 import { useCart } from '../context/CartContext';
 import toast from 'react-hot-toast';
 import ScrollButton from '../components/ScrollButton';
@@ -27,13 +28,11 @@ export default function HomePage() {
 
   const fetchHomeData = async () => {
     try {
-      const [productsRes, categoriesRes] = await Promise.all([
-        api.get('/products'),
-        api.get('/categories')
-      ]);
-      setAllProducts(productsRes.data);
-      setFilteredProducts(productsRes.data);
-      setCategories(categoriesRes.data);
+      // Single call for categories + products (revalidated via ETag)
+      const { data } = await api.get('/bootstrap');
+      setAllProducts(data.products);
+      setFilteredProducts(data.products);
+      setCategories(data.categories);
     } catch (error) {
       console.error('Failed to load home data:', error);
       toast.error('Failed to load products');
@@ -317,6 +316,8 @@ export default function HomePage() {
                     {product.imageUrl ? (
                       <img
                         src={product.imageUrl}
+                        srcSet={getImageSrcSet(product.imageUrl)}
+                        sizes={PRODUCT_CARD_SIZES}
                         alt={product.name}
                         className="w-full h-full object-cover group-hover:scale-110 transition-transform duration-700 ease-out"
                       />
@@ -2,6 +2,7 @@ import { useState, useEffect } from 'react';
 import { useSearchParams, useNavigate } from 'react-router-dom';
 import { ShoppingBag, Search, Filter, Sparkles, X, Grid, List, MessageCircle, Phone } from 'lucide-react';
 import api from '../config/api';
+import { getImageSrcSet, PRODUCT_CARD_SIZES } from '../utils/imageUtils';
 import toast from 'react-hot-toast';
 import { useCart } from '../context/CartContext';
 import ScrollButton from '../components/ScrollButton';
@@ -458,6 +459,8 @@ export default function ProductsPage() {
                     {product.imageUrl ? (
                       <img
                         src={product.imageUrl}
+                        srcSet={getImageSrcSet(product.imageUrl)}
+                        sizes={PRODUCT_CARD_SIZES}
                         alt={product.name}
                         className="h-full w-full object-cover group-hover:scale-110 transition-transform duration-700 ease-out"
                       />
@@ -669,6 +672,8 @@ export default function ProductsPage() {
                       {product.imageUrl ? (
                         <img
                           src={product.imageUrl}
+                          srcSet={getImageSrcSet(product.imageUrl)}
+                          sizes={PRODUCT_CARD_SIZES}
                           alt={product.name}
                           className="h-full w-full object-cover group-hover:scale-110 transition-transform duration-500"
                         />
@@ -0,0 +1,25 @@
+/**
+ * Image Utility Functions
+ *
+ * Builds responsive srcset values for images served by the backend,
+ * which resizes them on request (?w=200, 480 or 1080).
+ */
+
+const VARIANT_WIDTHS = [200, 480, 1080];
+
+/**
+ * Get a srcset for an uploaded product image
+ * External image URLs are returned as undefined so the browser just uses src
+ *
+ * @param {string} imageUrl - Image URL as stored on the product
+ * @returns {string|undefined} srcset attribute value
+ */
+export const getImageSrcSet = (imageUrl) => {
+  if (!imageUrl || !imageUrl.includes('/api/products/images/') || imageUrl.includes('?')) {
+    return undefined;
+  }
+  return VARIANT_WIDTHS.map(width => `${imageUrl}?w=${width} ${width}w`).join(', ');
+};
+
+// Product cards are full width on phones, two columns on tablets and up to four on desktop
+export const PRODUCT_CARD_SIZES = '(max-width: 640px) 100vw, (max-width: 1024px) 50vw, 25vw';
@@ -1,5 +1,7 @@
 package com.chinggizz.config;
 
+import com.chinggizz.service.CustomerOrderHistoryService;
+import com.chinggizz.service.OrderTrackingService;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -20,13 +22,28 @@ public class CacheConfig {
             "categories",
             "hamperBoxes",
             "productsByCategory",
-            "productsByType"
+            "productsByType",
+            "bootstrap"
         );
         
         cacheManager.setCaffeine(Caffeine.newBuilder()
             .maximumSize(1000)
             .expireAfterWrite(5, TimeUnit.MINUTES)
             .recordStats());
+
+        // Customer order history changes with every order, so it only lives briefly
+        cacheManager.registerCustomCache(CustomerOrderHistoryService.CACHE, Caffeine.newBuilder()
+            .maximumSize(5000)
+            .expireAfterWrite(60, TimeUnit.SECONDS)
+            .recordStats()
+            .build());
+
+        // Tracking entries are updated in place on status changes; expiry only bounds staleness
+        cacheManager.registerCustomCache(OrderTrackingService.CACHE, Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .recordStats()
+            .build());
         
         return cacheManager;
     }
@@ -0,0 +1,78 @@
+package com.chinggizz.config;
+
+import com.chinggizz.service.ratelimit.RateLimiter;
+import com.chinggizz.util.ClientIpResolver;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Rate Limiting Filter
+ * Prevents abuse and DDoS attacks on public endpoints
+ * Each route has its own per-client budget (see RateLimiter implementations for per-instance and
+ * cluster-wide buckets). Runs as a servlet filter so requests over budget are turned away before
+ * the DispatcherServlet parses a multipart body or spools its parts to disk.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final List<LimitedRoute> routes;
+    private final ClientIpResolver clientIpResolver;
+
+    public RateLimitFilter(List<LimitedRoute> routes, ClientIpResolver clientIpResolver) {
+        this.routes = routes;
+        this.clientIpResolver = clientIpResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // CORS preflights carry no work and must not use up the budget of the request that follows
+        return HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        PathContainer path = RequestPath.parse(request.getRequestURI(), request.getContextPath()).pathWithinApplication();
+        String key = null;
+        for (LimitedRoute route : routes) {
+            if (!route.matches(path)) {
+                continue;
+            }
+            if (key == null) {
+                key = clientIpResolver.resolve(request);
+            }
+            if (!route.rateLimiter().tryConsume(key)) {
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setContentType("application/json");
+                response.getWriter().write("{\"error\":\"Too many requests. Please try again later.\",\"status\":429}");
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * One configured route: its path patterns and the limiter holding its per-client buckets
+     */
+    public record LimitedRoute(List<PathPattern> patterns, RateLimiter rateLimiter) {
+
+        public static LimitedRoute of(List<String> paths, RateLimiter rateLimiter) {
+            return new LimitedRoute(paths.stream().map(PathPatternParser.defaultInstance::parse).toList(), rateLimiter);
+        }
+
+        boolean matches(PathContainer path) {
+            return patterns.stream().anyMatch(pattern -> pattern.matches(path));
+        }
+    }
+}
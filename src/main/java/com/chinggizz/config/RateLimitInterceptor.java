@@ -1,61 +0,0 @@
-package com.chinggizz.config;
-
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.http.HttpStatus;
-import org.springframework.stereotype.Component;
-import org.springframework.web.servlet.HandlerInterceptor;
-
-import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
-/**
- * Rate Limiting Interceptor using Bucket4j
- * Prevents abuse and DDoS attacks on order creation endpoint
- */
-@Component
-public class RateLimitInterceptor implements HandlerInterceptor {
-    
-    private final Map<String, Bucket> cache = new ConcurrentHashMap<>();
-    
-    @Override
-    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        String key = getClientKey(request);
-        Bucket bucket = resolveBucket(key);
-        
-        if (bucket.tryConsume(1)) {
-            return true;
-        } else {
-            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            response.setContentType("application/json");
-            response.getWriter().write("{\"error\":\"Too many requests. Please try again later.\",\"status\":429}");
-            return false;
-        }
-    }
-    
-    private Bucket resolveBucket(String key) {
-        return cache.computeIfAbsent(key, k -> createNewBucket());
-    }
-    
-    private Bucket createNewBucket() {
-        // Allow 10 requests per minute per IP
-        Bandwidth limit = Bandwidth.classic(10, Refill.intervally(10, Duration.ofMinutes(1)));
-        return Bucket.builder()
-                .addLimit(limit)
-                .build();
-    }
-    
-    private String getClientKey(HttpServletRequest request) {
-        // Use IP address as key
-        String clientIp = request.getHeader("X-Forwarded-For");
-        if (clientIp == null || clientIp.isEmpty()) {
-            clientIp = request.getRemoteAddr();
-        }
-        return clientIp;
-    }
-}
-
@@ -0,0 +1,50 @@
+package com.chinggizz.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate limiting settings (app.rate-limit): per-route budgets plus bounds on the per-client bucket store
+ */
+@Data
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * local: buckets per instance; jdbc: buckets shared by all instances in rate_limit_buckets
+     */
+    private String mode = "local";
+
+    /**
+     * jdbc mode: tokens an instance takes from the shared bucket at a time and spends locally
+     */
+    private long batchSize = 2;
+
+    /**
+     * Most clients tracked per route; least valuable buckets are evicted beyond this
+     */
+    private long maxClients = 20_000;
+
+    /**
+     * Buckets not used for this long are dropped (never sooner than the route's period)
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * Reverse proxies in front of the app; only X-Forwarded-For hops they appended are trusted
+     */
+    private int trustedProxies = 1;
+
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+        private List<String> paths = new ArrayList<>();
+        private long capacity;
+        private Duration period = Duration.ofMinutes(1);
+    }
+}
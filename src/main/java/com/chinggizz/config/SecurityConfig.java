@@ -4,6 +4,7 @@ import com.chinggizz.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -46,9 +47,13 @@ public class SecurityConfig {
                 .requestMatchers("/api/health/**").permitAll()  // Health check for cron monitoring
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/categories/**").permitAll()
+                .requestMatchers(HttpMethod.POST, "/api/products/import").authenticated()
                 .requestMatchers("/api/products/**").permitAll()
                 .requestMatchers("/api/hamper-boxes/**").permitAll()
+                .requestMatchers("/api/bootstrap").permitAll()
+                .requestMatchers("/api/catalog/**").permitAll()
                 .requestMatchers("/api/orders/create").permitAll()
+                .requestMatchers("/api/orders/track/**").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
                 .requestMatchers("/error").permitAll()
 
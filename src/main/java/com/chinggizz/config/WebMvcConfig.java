@@ -1,25 +1,76 @@
 package com.chinggizz.config;
 
+import com.chinggizz.service.ratelimit.DistributedRateLimiter;
+import com.chinggizz.service.ratelimit.JdbcBucketStore;
+import com.chinggizz.service.ratelimit.LocalRateLimiter;
+import com.chinggizz.service.ratelimit.RateLimiter;
+import com.chinggizz.timing.TimedJacksonHttpMessageConverter;
+import com.chinggizz.util.ClientIpResolver;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 /**
  * Web MVC Configuration
- * Registers rate limiting interceptor for order creation endpoint
+ * Registers the rate limiting filter for the routes configured under app.rate-limit.routes
+ * and times JSON parsing/serialization for the Server-Timing breakdown
  */
 @Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
 @RequiredArgsConstructor
 public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final RateLimitProperties rateLimitProperties;
+    private final ObjectProvider<JdbcBucketStore> jdbcBucketStore;
     
-    private final RateLimitInterceptor rateLimitInterceptor;
-    
+    /**
+     * Shared with login backoff, which keys failures by the same client address the rate limiter uses
+     */
+    @Bean
+    public ClientIpResolver clientIpResolver() {
+        return new ClientIpResolver(rateLimitProperties.getTrustedProxies());
+    }
+
+    /**
+     * Runs right after request timing and ahead of Spring Security, so over-budget requests cost
+     * neither JWT checks nor multipart parsing
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter() {
+        List<RateLimitFilter.LimitedRoute> routes = rateLimitProperties.getRoutes().stream()
+                .map(route -> RateLimitFilter.LimitedRoute.of(route.getPaths(), createRateLimiter(route)))
+                .toList();
+        FilterRegistrationBean<RateLimitFilter> registration =
+                new FilterRegistrationBean<>(new RateLimitFilter(routes, clientIpResolver()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
     @Override
-    public void addInterceptors(InterceptorRegistry registry) {
-        // Apply rate limiting to order creation endpoint
-        registry.addInterceptor(rateLimitInterceptor)
-                .addPathPatterns("/api/orders/create");
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.replaceAll(converter -> converter.getClass() == MappingJackson2HttpMessageConverter.class
+                ? new TimedJacksonHttpMessageConverter(((MappingJackson2HttpMessageConverter) converter).getObjectMapper())
+                : converter);
     }
-}
 
+    private RateLimiter createRateLimiter(RateLimitProperties.Route route) {
+        JdbcBucketStore store = jdbcBucketStore.getIfAvailable();
+        if (store != null) {
+            // Shared across instances; buckets are keyed by the route's first path
+            return new DistributedRateLimiter(store, route.getPaths().get(0), route.getCapacity(), route.getPeriod(),
+                    rateLimitProperties.getBatchSize(), rateLimitProperties.getMaxClients(),
+                    rateLimitProperties.getIdleTimeout());
+        }
+        return new LocalRateLimiter(route.getCapacity(), route.getPeriod(),
+                rateLimitProperties.getMaxClients(), rateLimitProperties.getIdleTimeout());
+    }
+}
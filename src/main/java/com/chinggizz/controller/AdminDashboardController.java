@@ -0,0 +1,116 @@
+package com.chinggizz.controller;
+
+import com.chinggizz.dto.CacheStatsDTO;
+import com.chinggizz.dto.FlightRecordingDTO;
+import com.chinggizz.dto.SalesDashboardDTO;
+import com.chinggizz.service.CacheStatsService;
+import com.chinggizz.service.FlightRecordingService;
+import com.chinggizz.service.OrderCreationLimiter;
+import com.chinggizz.service.SalesRollupService;
+import com.chinggizz.service.StorageReclaimService;
+import com.chinggizz.timing.StatementBudget;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin Dashboard Controller
+ * Serves pre-aggregated sales figures so the dashboard no longer downloads every order
+ */
+@RestController
+@RequestMapping("/api/admin/dashboard")
+@RequiredArgsConstructor
+public class AdminDashboardController {
+
+    private final SalesRollupService salesRollupService;
+    private final CacheStatsService cacheStatsService;
+    private final StorageReclaimService storageReclaimService;
+    private final OrderCreationLimiter orderCreationLimiter;
+    private final FlightRecordingService flightRecordingService;
+
+    @GetMapping("/sales")
+    @StatementBudget(3)
+    public ResponseEntity<SalesDashboardDTO> getSales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        SalesDashboardDTO dashboard = salesRollupService.getDashboard(from, to);
+        return ResponseEntity.ok(dashboard);
+    }
+
+    /**
+     * Recompute the rollups from the orders tables (e.g. after a manual data fix)
+     */
+    @PostMapping("/sales/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSales() {
+        int rows = salesRollupService.rebuild();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "REBUILT");
+        response.put("rows", rows);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Hit ratios and sizes of the in-memory caches, including the off-heap hot image cache
+     */
+    @GetMapping("/caches")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(cacheStatsService.getCacheStats());
+    }
+
+    /**
+     * Current adaptive concurrency limit for order creation, with accepted / rejected counts
+     */
+    @GetMapping("/order-limiter")
+    public ResponseEntity<Map<String, Object>> getOrderLimiter() {
+        return ResponseEntity.ok(orderCreationLimiter.getMetrics());
+    }
+
+    /**
+     * Start deleting uploaded images nothing references any more (also runs on a schedule)
+     * The run is paced and can take minutes, so it happens in the background; poll the GET for the result
+     */
+    @PostMapping("/storage/reclaim")
+    public ResponseEntity<Map<String, Object>> reclaimStorage() {
+        storageReclaimService.reclaim();
+        return ResponseEntity.accepted().body(Map.of("status", "STARTED"));
+    }
+
+    /**
+     * Whether a reclaim is running, and the result of the last completed run
+     */
+    @GetMapping("/storage/reclaim")
+    public ResponseEntity<Map<String, Object>> getStorageReclaim() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("running", storageReclaimService.isRunning());
+        response.put("lastResult", storageReclaimService.getLastResult().orElse(null));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Whether a Flight Recorder recording is running, and the file the last one was dumped to
+     */
+    @GetMapping("/recording")
+    public ResponseEntity<FlightRecordingDTO> getRecording() {
+        return ResponseEntity.ok(flightRecordingService.status());
+    }
+
+    @PostMapping("/recording/start")
+    public ResponseEntity<FlightRecordingDTO> startRecording() {
+        return ResponseEntity.ok(flightRecordingService.start());
+    }
+
+    /**
+     * Stop the recording and dump it to app.jfr.dump-dir (open the .jfr file in JDK Mission Control)
+     */
+    @PostMapping("/recording/stop")
+    public ResponseEntity<FlightRecordingDTO> stopRecording() {
+        return ResponseEntity.ok(flightRecordingService.stop());
+    }
+}
@@ -26,8 +26,12 @@ public class ApiRootController {
         Map<String, String> endpoints = new HashMap<>();
         endpoints.put("categories", "/api/categories");
         endpoints.put("products", "/api/products");
+        endpoints.put("productFacets", "/api/products/facets");
         endpoints.put("hamperBoxes", "/api/hamper-boxes");
+        endpoints.put("bootstrap", "/api/bootstrap");
+        endpoints.put("catalogChanges", "/api/catalog/changes?since={version}");
         endpoints.put("createOrder", "/api/orders/create");
+        endpoints.put("trackOrder", "/api/orders/track/{orderNumber}");
         endpoints.put("adminLogin", "/api/auth/login");
 
         response.put("publicEndpoints", endpoints);
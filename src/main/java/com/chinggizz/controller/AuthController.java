@@ -3,6 +3,8 @@ package com.chinggizz.controller;
 import com.chinggizz.dto.LoginRequest;
 import com.chinggizz.dto.LoginResponse;
 import com.chinggizz.service.AuthService;
+import com.chinggizz.util.ClientIpResolver;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -14,10 +16,11 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
     
     private final AuthService authService;
+    private final ClientIpResolver clientIpResolver;
     
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
-        LoginResponse response = authService.login(request);
+    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        LoginResponse response = authService.login(request, clientIpResolver.resolve(httpRequest));
         return ResponseEntity.ok(response);
     }
 }
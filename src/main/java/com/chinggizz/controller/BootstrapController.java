@@ -0,0 +1,41 @@
+package com.chinggizz.controller;
+
+import com.chinggizz.service.BootstrapService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Bootstrap Controller
+ * Serves categories, active products and active hamper boxes in a single call for first paint
+ */
+@RestController
+@RequestMapping("/api/bootstrap")
+@RequiredArgsConstructor
+public class BootstrapController {
+
+    private final BootstrapService bootstrapService;
+
+    /**
+     * Returns 304 Not Modified when the client already holds the current version
+     */
+    @GetMapping
+    public ResponseEntity<byte[]> getBootstrap(WebRequest webRequest) {
+        BootstrapService.Snapshot snapshot = bootstrapService.getSnapshot();
+
+        if (webRequest.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(snapshot.body());
+    }
+}
@@ -0,0 +1,33 @@
+package com.chinggizz.controller;
+
+import com.chinggizz.dto.CatalogChangesDTO;
+import com.chinggizz.service.CatalogService;
+import com.chinggizz.timing.StatementBudget;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Catalog Controller
+ * Delta sync of categories, products and hamper boxes for the frontend and edge caches
+ */
+@RestController
+@RequestMapping("/api/catalog")
+@RequiredArgsConstructor
+public class CatalogController {
+
+    private final CatalogService catalogService;
+
+    /**
+     * Changes since a catalog version (omit "since" for a full snapshot)
+     */
+    @GetMapping("/changes")
+    @StatementBudget(3)
+    public ResponseEntity<CatalogChangesDTO> getChanges(@RequestParam(defaultValue = "0") long since) {
+        CatalogChangesDTO changes = catalogService.getChangesSince(since);
+        return ResponseEntity.ok(changes);
+    }
+}
@@ -2,6 +2,7 @@ package com.chinggizz.controller;
 
 import com.chinggizz.dto.CategoryDTO;
 import com.chinggizz.service.CategoryService;
+import com.chinggizz.timing.StatementBudget;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,12 +18,14 @@ public class CategoryController {
     private final CategoryService categoryService;
 
     @GetMapping
+    @StatementBudget(1)
     public ResponseEntity<List<CategoryDTO>> getAllActiveCategories() {
         List<CategoryDTO> categories = categoryService.getAllActiveCategories();
         return ResponseEntity.ok(categories);
     }
     
     @GetMapping("/{id}")
+    @StatementBudget(1)
     public ResponseEntity<CategoryDTO> getCategoryById(@PathVariable Long id) {
         CategoryDTO category = categoryService.getCategoryById(id);
         return ResponseEntity.ok(category);
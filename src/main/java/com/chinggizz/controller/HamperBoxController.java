@@ -2,6 +2,7 @@ package com.chinggizz.controller;
 
 import com.chinggizz.dto.HamperBoxDTO;
 import com.chinggizz.service.HamperBoxService;
+import com.chinggizz.timing.StatementBudget;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,12 +18,14 @@ public class HamperBoxController {
     private final HamperBoxService hamperBoxService;
 
     @GetMapping
+    @StatementBudget(1)
     public ResponseEntity<List<HamperBoxDTO>> getAllActiveHamperBoxes() {
         List<HamperBoxDTO> hamperBoxes = hamperBoxService.getAllActiveHamperBoxes();
         return ResponseEntity.ok(hamperBoxes);
     }
     
     @GetMapping("/{id}")
+    @StatementBudget(1)
     public ResponseEntity<HamperBoxDTO> getHamperBoxById(@PathVariable Long id) {
         HamperBoxDTO hamperBox = hamperBoxService.getHamperBoxById(id);
         return ResponseEntity.ok(hamperBox);
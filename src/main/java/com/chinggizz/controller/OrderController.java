@@ -1,50 +1,176 @@
 package com.chinggizz.controller;
 
+import com.chinggizz.dto.BulkOrderStatusRequest;
+import com.chinggizz.dto.BulkOrderStatusResultDTO;
 import com.chinggizz.dto.CreateOrderRequest;
+import com.chinggizz.dto.CustomerOrderHistoryDTO;
 import com.chinggizz.dto.OrderDTO;
+import com.chinggizz.dto.OrderHamperRequest;
+import com.chinggizz.dto.OrderTrackingDTO;
 import com.chinggizz.enums.OrderStatus;
+import com.chinggizz.exception.BadRequestException;
+import com.chinggizz.service.CustomerOrderHistoryService;
+import com.chinggizz.service.FileStorageService;
+import com.chinggizz.service.OrderCreationLimiter;
 import com.chinggizz.service.OrderService;
+import com.chinggizz.service.OrderTrackingService;
+import com.chinggizz.timing.StatementBudget;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
 public class OrderController {
     
+    private static final String SCREENSHOT_PART_PREFIX = "screenshot-";
+    private static final Map<String, String> SCREENSHOT_TYPES = Map.of(
+            MediaType.IMAGE_PNG_VALUE, ".png",
+            MediaType.IMAGE_JPEG_VALUE, ".jpg",
+            "image/webp", ".webp");
+
     private final OrderService orderService;
+    private final OrderCreationLimiter orderCreationLimiter;
+    private final FileStorageService fileStorageService;
+    private final CustomerOrderHistoryService customerOrderHistoryService;
+    private final OrderTrackingService orderTrackingService;
 
+    // Cart rows are inserted one by one (IDENTITY ids rule out insert batching)
     @PostMapping("/create")
+    @StatementBudget(20)
     public ResponseEntity<OrderDTO> createOrder(@Valid @RequestBody CreateOrderRequest request) {
-        OrderDTO order = orderService.createOrder(request);
+        OrderDTO order = orderCreationLimiter.call(() -> orderService.createOrder(request));
         return ResponseEntity.status(HttpStatus.CREATED).body(order);
     }
 
+    /**
+     * Create order with hamper screenshots as binary parts instead of base64 strings
+     * Part "order" carries the CreateOrderRequest JSON; part "screenshot-{i}" is the image
+     * for orderHampers[i]. Parts are validated up front, but images are only streamed to storage
+     * (with their SHA-256) once an order creation slot is held, so requests the limiter turns away
+     * never write files. Once the order transaction has started, OrderService deletes them if it
+     * rolls back.
+     */
+    @PostMapping(value = "/create", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @StatementBudget(20)
+    public ResponseEntity<OrderDTO> createOrderWithScreenshots(
+            @Valid @RequestPart("order") CreateOrderRequest request,
+            MultipartHttpServletRequest multipartRequest) {
+        List<ScreenshotPart> screenshots = new ArrayList<>();
+        for (Map.Entry<String, MultipartFile> part : multipartRequest.getFileMap().entrySet()) {
+            if (!part.getKey().startsWith(SCREENSHOT_PART_PREFIX)) {
+                continue;
+            }
+            OrderHamperRequest hamper = hamperForPart(request, part.getKey());
+            MultipartFile file = part.getValue();
+            String extension = SCREENSHOT_TYPES.get(file.getContentType());
+            if (file.isEmpty() || extension == null) {
+                throw new BadRequestException("Part " + part.getKey() + " must be a PNG, JPEG or WebP image");
+            }
+            screenshots.add(new ScreenshotPart(hamper, file, extension));
+        }
+
+        List<String> storedFiles = new ArrayList<>();
+        AtomicBoolean handedOver = new AtomicBoolean();
+        try {
+            OrderDTO order = orderCreationLimiter.call(() -> {
+                for (ScreenshotPart screenshot : screenshots) {
+                    FileStorageService.StoredFile stored =
+                            fileStorageService.storeWithDigest(screenshot.file(), "hamper-", screenshot.extension());
+                    storedFiles.add(stored.fileName());
+                    screenshot.hamper().setScreenshot(ServletUriComponentsBuilder.fromCurrentContextPath()
+                            .path("/api/products/images/")
+                            .path(stored.fileName())
+                            .toUriString());
+                    screenshot.hamper().setScreenshotSha256(stored.sha256());
+                }
+                handedOver.set(true);
+                return orderService.createOrder(request, storedFiles);
+            });
+            return ResponseEntity.status(HttpStatus.CREATED).body(order);
+        } catch (RuntimeException e) {
+            // Failed before the order transaction started (storage error), so nothing references
+            // the screenshots; after that, only a rollback may remove them
+            if (!handedOver.get()) {
+                storedFiles.forEach(fileStorageService::deleteFile);
+            }
+            throw e;
+        }
+    }
+
+    private OrderHamperRequest hamperForPart(CreateOrderRequest request, String partName) {
+        List<OrderHamperRequest> hampers = request.getOrderHampers() != null ? request.getOrderHampers() : List.of();
+        try {
+            int index = Integer.parseInt(partName.substring(SCREENSHOT_PART_PREFIX.length()));
+            if (index >= 0 && index < hampers.size()) {
+                return hampers.get(index);
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the error below
+        }
+        throw new BadRequestException("Part " + partName + " does not match any order hamper");
+    }
+
+    // Order, items, hampers, products and boxes each load in one batched query per 50 orders
     @GetMapping
+    @StatementBudget(9)
     public ResponseEntity<List<OrderDTO>> getAllOrders() {
         List<OrderDTO> orders = orderService.getAllOrders();
         return ResponseEntity.ok(orders);
     }
     
     @GetMapping("/{id}")
+    @StatementBudget(5)
     public ResponseEntity<OrderDTO> getOrderById(@PathVariable Long id) {
         OrderDTO order = orderService.getOrderById(id);
         return ResponseEntity.ok(order);
     }
     
     @GetMapping("/order-number/{orderNumber}")
+    @StatementBudget(5)
     public ResponseEntity<OrderDTO> getOrderByOrderNumber(@PathVariable String orderNumber) {
         OrderDTO order = orderService.getOrderByOrderNumber(orderNumber);
         return ResponseEntity.ok(order);
     }
     
+    /**
+     * Order history for a customer phone number (any common spelling), newest first
+     * Pass the returned nextCursor back as ?cursor= to page through older orders
+     */
+    @GetMapping("/customer/{phone}")
+    @StatementBudget(1)
+    public ResponseEntity<CustomerOrderHistoryDTO> getCustomerOrderHistory(
+            @PathVariable String phone,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        CustomerOrderHistoryDTO history = customerOrderHistoryService.getHistory(phone, limit, cursor);
+        return ResponseEntity.ok(history);
+    }
+
+    /**
+     * Public order tracking by order number (status, timestamps and delivery info only)
+     */
+    @GetMapping("/track/{orderNumber}")
+    @StatementBudget(1)
+    public ResponseEntity<OrderTrackingDTO> trackOrder(@PathVariable String orderNumber) {
+        OrderTrackingDTO tracking = orderTrackingService.getTracking(orderNumber);
+        return ResponseEntity.ok(tracking);
+    }
+
     @GetMapping("/status/{status}")
+    @StatementBudget(9)
     public ResponseEntity<List<OrderDTO>> getOrdersByStatus(@PathVariable OrderStatus status) {
         List<OrderDTO> orders = orderService.getOrdersByStatus(status);
         return ResponseEntity.ok(orders);
@@ -58,5 +184,17 @@ public class OrderController {
         OrderDTO updated = orderService.updateOrderStatus(id, status);
         return ResponseEntity.ok(updated);
     }
-}
 
+    /**
+     * Move many orders (by id and/or order number) to one status, e.g. at dispatch time
+     * Returns one outcome per order; illegal transitions are reported and skipped
+     */
+    @PutMapping("/bulk/status")
+    public ResponseEntity<BulkOrderStatusResultDTO> bulkUpdateOrderStatus(
+            @Valid @RequestBody BulkOrderStatusRequest request) {
+        BulkOrderStatusResultDTO result = orderService.bulkUpdateOrderStatus(request);
+        return ResponseEntity.ok(result);
+    }
+
+    private record ScreenshotPart(OrderHamperRequest hamper, MultipartFile file, String extension) {}
+}
@@ -1,62 +1,99 @@
 package com.chinggizz.controller;
 
 import com.chinggizz.dto.ProductDTO;
+import com.chinggizz.dto.ProductFacetsDTO;
+import com.chinggizz.dto.ProductImportResultDTO;
+import com.chinggizz.enums.PriceBucket;
 import com.chinggizz.enums.ProductType;
 import com.chinggizz.service.FileStorageService;
+import com.chinggizz.service.ImageVariantService;
+import com.chinggizz.service.ProductFacetService;
+import com.chinggizz.service.ProductImportService;
 import com.chinggizz.service.ProductService;
+import com.chinggizz.timing.StatementBudget;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final long MAX_IMAGE_BYTES = 5 * 1024 * 1024;
+
     private final ProductService productService;
     private final FileStorageService fileStorageService;
+    private final ImageVariantService imageVariantService;
+    private final ProductFacetService productFacetService;
+    private final ProductImportService productImportService;
 
     @Value("${server.port:8080}")
     private String serverPort;
 
     @GetMapping
+    @StatementBudget(1)
     public ResponseEntity<List<ProductDTO>> getAllActiveProducts() {
         List<ProductDTO> products = productService.getAllActiveProducts();
         return ResponseEntity.ok(products);
     }
     
     @GetMapping("/{id}")
+    @StatementBudget(2)
     public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
         ProductDTO product = productService.getProductById(id);
         return ResponseEntity.ok(product);
     }
     
     @GetMapping("/category/{categoryId}")
+    @StatementBudget(1)
     public ResponseEntity<List<ProductDTO>> getProductsByCategory(@PathVariable Long categoryId) {
         List<ProductDTO> products = productService.getProductsByCategory(categoryId);
         return ResponseEntity.ok(products);
     }
     
     @GetMapping("/type/{productType}")
+    @StatementBudget(1)
     public ResponseEntity<List<ProductDTO>> getProductsByType(@PathVariable ProductType productType) {
         List<ProductDTO> products = productService.getProductsByType(productType);
         return ResponseEntity.ok(products);
     }
     
     @GetMapping("/customizable")
+    @StatementBudget(1)
     public ResponseEntity<List<ProductDTO>> getCustomizableProducts() {
         List<ProductDTO> products = productService.getCustomizableProducts();
         return ResponseEntity.ok(products);
     }
     
+    /**
+     * Facet counts for the products page filter chips
+     * Multiple values of the same facet are OR-ed, different facets are AND-ed
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<ProductFacetsDTO> getProductFacets(
+            @RequestParam(required = false) Set<Long> categoryId,
+            @RequestParam(required = false) Set<ProductType> productType,
+            @RequestParam(required = false) Set<PriceBucket> priceBucket,
+            @RequestParam(required = false) Boolean customizable,
+            @RequestParam(required = false) Boolean inStock) {
+        ProductFacetsDTO facets = productFacetService.getFacets(categoryId, productType, priceBucket, customizable, inStock);
+        return ResponseEntity.ok(facets);
+    }
+    
     // Admin endpoints
     @PostMapping
     public ResponseEntity<ProductDTO> createProduct(@RequestBody ProductDTO productDTO) {
@@ -64,6 +101,18 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
     
+    /**
+     * Bulk import products from NDJSON (one ProductDTO per line) or CSV (header row of ProductDTO fields)
+     * Rows with an id update that product, rows without one are created; errors are reported per row
+     */
+    @PostMapping(value = "/import", consumes = {ProductImportService.NDJSON, ProductImportService.CSV})
+    public ResponseEntity<ProductImportResultDTO> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        ProductImportResultDTO result = productImportService.importProducts(body, contentType);
+        return ResponseEntity.ok(result);
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<ProductDTO> updateProduct(@PathVariable Long id, @RequestBody ProductDTO productDTO) {
         ProductDTO updated = productService.updateProduct(id, productDTO);
@@ -98,14 +147,34 @@ public class ProductController {
         }
 
         // Validate file size (5MB max)
-        if (file.getSize() > 5 * 1024 * 1024) {
+        if (file.getSize() > MAX_IMAGE_BYTES) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "File size must be less than 5MB");
             return ResponseEntity.badRequest().body(error);
         }
 
-        // Store file
-        String fileName = fileStorageService.storeFile(file);
+        // Store file (content-addressed, so repeated uploads reuse the stored copy)
+        FileStorageService.StoredFile stored = fileStorageService.storeFile(file);
+        return ResponseEntity.ok(uploadResponse(stored));
+    }
+
+    /**
+     * Upload an image as the raw request body (Content-Type: image/...)
+     * Skips multipart buffering: the body is hashed while streaming into storage. When the client
+     * sends X-Content-SHA256 for an image that is already stored, the body is not read at all.
+     */
+    @PostMapping(value = "/upload-image", consumes = "image/*")
+    public ResponseEntity<Map<String, String>> uploadProductImageRaw(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestHeader(value = "X-Content-SHA256", required = false) String contentSha256,
+            InputStream body) {
+        String extension = "jpeg".equals(contentType.getSubtype()) ? ".jpg" : "." + contentType.getSubtype();
+        FileStorageService.StoredFile stored = fileStorageService.storeFile(body, extension, MAX_IMAGE_BYTES, contentSha256);
+        return ResponseEntity.ok(uploadResponse(stored));
+    }
+
+    private Map<String, String> uploadResponse(FileStorageService.StoredFile stored) {
+        String fileName = stored.fileName();
 
         // Build file URL
         String fileDownloadUri = ServletUriComponentsBuilder.fromCurrentContextPath()
@@ -113,11 +182,20 @@ public class ProductController {
                 .path(fileName)
                 .toUriString();
 
+        // Resized variants for srcset, e.g. "<url>-w200.jpg 200w, <url>-w480.jpg 480w, ..."
+        Map<Integer, String> variants = imageVariantService.generateVariants(fileName);
+        String srcset = variants.entrySet().stream()
+                .map(variant -> ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/api/products/images/")
+                        .path(variant.getValue())
+                        .toUriString() + " " + variant.getKey() + "w")
+                .collect(Collectors.joining(", "));
+
         Map<String, String> response = new HashMap<>();
         response.put("imageUrl", fileDownloadUri);
         response.put("fileName", fileName);
-
-        return ResponseEntity.ok(response);
+        response.put("srcset", srcset);
+        response.put("deduplicated", String.valueOf(stored.deduplicated()));
+        return response;
     }
 }
-
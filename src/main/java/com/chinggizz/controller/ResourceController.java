@@ -1,57 +1,230 @@
 package com.chinggizz.controller;
 
 import com.chinggizz.service.FileStorageService;
+import com.chinggizz.service.FileStorageService.FileMetadata;
+import com.chinggizz.service.HotImageCache;
+import com.chinggizz.service.ImageVariantService;
+import com.chinggizz.service.storage.ObjectStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.nio.file.Path;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Optional;
 
+/**
+ * Serves uploaded product images and hamper screenshots
+ * Stored files get unique names and are never overwritten, so responses are marked immutable and
+ * revalidated by content-hash ETag. With S3 storage clients are redirected to presigned URLs.
+ * Otherwise the hottest files are served from an off-heap cache; others go
+ * through Tomcat's sendfile support when available, otherwise through FileChannel.transferTo,
+ * so image bytes are not copied through the heap.
+ */
 @RestController
 @RequestMapping("/api/products/images")
 @RequiredArgsConstructor
 @Slf4j
 public class ResourceController {
 
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String FALLBACK = "public, max-age=300";
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final FileStorageService fileStorageService;
+    private final ImageVariantService imageVariantService;
+    private final HotImageCache hotImageCache;
 
+    /**
+     * Serve a stored image, or with ?w= the resized variant covering that width (for srcset)
+     */
     @GetMapping("/{fileName:.+}")
-    public ResponseEntity<Resource> serveFile(@PathVariable String fileName) {
-        try {
-            Path filePath = fileStorageService.getFileStorageLocation().resolve(fileName).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (resource.exists() && resource.isReadable()) {
-                // Determine content type
-                String contentType = "application/octet-stream";
-                try {
-                    contentType = java.nio.file.Files.probeContentType(filePath);
-                    if (contentType == null) {
-                        contentType = "application/octet-stream";
-                    }
-                } catch (IOException ex) {
-                    log.warn("Could not determine file type for: {}", fileName);
+    public void serveFile(@PathVariable String fileName,
+                          @RequestParam(value = "w", required = false) Integer width,
+                          HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        String cacheControl = IMMUTABLE;
+        if (width != null && width > 0) {
+            String hotVariant = ImageVariantService.variantFor(fileName, width);
+            Optional<String> variant = hotImageCache.get(hotVariant).isPresent()
+                    ? Optional.of(hotVariant)
+                    : imageVariantService.resolveVariant(fileName, width);
+            if (variant.isPresent()) {
+                fileName = variant.get();
+            } else {
+                // Fallback to the original; let the browser ask again once the variant exists
+                cacheControl = FALLBACK;
+            }
+        }
+
+        // Object storage that can serve clients directly: redirect instead of proxying the bytes
+        Optional<ObjectStore.DirectDownload> direct = fileStorageService.directDownload(fileName);
+        if (direct.isPresent()) {
+            response.setStatus(HttpStatus.FOUND.value());
+            response.setHeader(HttpHeaders.LOCATION, direct.get().url().toString());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, FALLBACK.equals(cacheControl)
+                    ? FALLBACK
+                    : "public, max-age=" + direct.get().cacheFor().toSeconds());
+            return;
+        }
+
+        // Hot files come straight from direct memory, without even a stat() on the upload disk
+        Optional<HotImageCache.Entry> hot = hotImageCache.get(fileName);
+        FileMetadata metadata;
+        ByteBuffer content;
+        if (hot.isPresent()) {
+            metadata = hot.get().metadata();
+            content = hot.get().content();
+        } else {
+            Optional<FileMetadata> found = fileStorageService.getMetadata(fileName);
+            if (found.isEmpty()) {
+                log.error("File not found or not readable: {}", fileName);
+                response.setStatus(HttpStatus.NOT_FOUND.value());
+                return;
+            }
+            metadata = found.get();
+            content = hotImageCache.admit(fileName, metadata).map(HotImageCache.Entry::content).orElse(null);
+        }
+
+        response.setHeader(HttpHeaders.ETAG, metadata.etag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, metadata.lastModified());
+
+        if (etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), metadata.etag())) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long start = 0;
+        long end = metadata.length() - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(metadata.etag()))) {
+            long[] bounds = parseRange(range, metadata.length());
+            if (bounds == null) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + metadata.length());
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + metadata.length());
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(metadata.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + metadata.path().getFileName() + "\"");
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (content != null) {
+            ByteBuffer region = content.duplicate();
+            region.limit((int) end + 1).position((int) start);
+            try (WritableByteChannel out = Channels.newChannel(response.getOutputStream())) {
+                while (region.hasRemaining()) {
+                    out.write(region);
                 }
+            } catch (IOException ex) {
+                log.debug("Aborted sending file {}: {}", fileName, ex.getMessage());
+            }
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat writes the file region straight from the page cache after the handler returns
+            request.setAttribute(SENDFILE_FILENAME, metadata.path().toFile().getCanonicalPath());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
 
-                return ResponseEntity.ok()
-                        .contentType(MediaType.parseMediaType(contentType))
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"")
-                        .body(resource);
+        try (FileChannel channel = FileChannel.open(metadata.path());
+             WritableByteChannel out = Channels.newChannel(response.getOutputStream())) {
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        } catch (IOException ex) {
+            // Usually the client went away mid-download (e.g. scrolled past an image)
+            log.debug("Aborted sending file {}: {}", fileName, ex.getMessage());
+        }
+    }
+
+    private boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parse a single "bytes=" range into inclusive bounds
+     * Returns an empty array to serve the whole file (multi-range or unknown units are
+     * answered with the full body, as RFC 9110 allows) and null when the range is unsatisfiable.
+     */
+    private long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
             } else {
-                log.error("File not found or not readable: {}", fileName);
-                return ResponseEntity.notFound().build();
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
             }
-        } catch (MalformedURLException ex) {
-            log.error("Malformed URL for file: {}", fileName, ex);
-            return ResponseEntity.badRequest().build();
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException ex) {
+            return new long[0];
         }
     }
 }
-
@@ -0,0 +1,23 @@
+package com.chinggizz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Storefront Bootstrap Data Transfer Object
+ * Everything HomePage and HamperBuilderPage need for first paint, in one payload
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BootstrapDTO {
+    private Long catalogVersion;
+    private List<CategoryDTO> categories;
+    private List<ProductDTO> products;
+    private List<HamperBoxDTO> hamperBoxes;
+}
@@ -0,0 +1,31 @@
+package com.chinggizz.dto;
+
+import com.chinggizz.enums.OrderStatus;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for moving many orders to one status
+ * Orders can be referenced by id, by order number, or both
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderStatusRequest {
+
+    @Size(max = 500, message = "At most 500 order ids per request")
+    private List<Long> orderIds;
+
+    @Size(max = 500, message = "At most 500 order numbers per request")
+    private List<String> orderNumbers;
+
+    @NotNull(message = "Target status is required")
+    private OrderStatus status;
+}
@@ -0,0 +1,41 @@
+package com.chinggizz.dto;
+
+import com.chinggizz.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of a bulk order status transition with one outcome per requested order
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderStatusResultDTO {
+    private OrderStatus status;
+    private Integer updated;
+    private List<Outcome> outcomes;
+
+    public enum Result {
+        UPDATED,            // Status changed
+        UNCHANGED,          // Order was already in the target status
+        ILLEGAL_TRANSITION, // Workflow does not allow the transition
+        CONFLICT,           // Order changed concurrently, nothing applied
+        NOT_FOUND           // No order with this id / order number
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Outcome {
+        private Long orderId;
+        private String orderNumber;
+        private OrderStatus previousStatus;
+        private Result result;
+    }
+}
@@ -0,0 +1,25 @@
+package com.chinggizz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cache Statistics Data Transfer Object for the admin dashboard
+ * weightedBytes / maxBytes are only set for byte-bounded caches (the hot image cache)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+    private String name;
+    private long size;
+    private long hits;
+    private long misses;
+    private double hitRatio;
+    private long evictions;
+    private Long weightedBytes;
+    private Long maxBytes;
+}
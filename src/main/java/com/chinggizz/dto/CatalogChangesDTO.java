@@ -0,0 +1,27 @@
+package com.chinggizz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Catalog delta since a client-held version
+ * Upserted lists carry full active entities; deactivated lists carry only ids to drop.
+ * Clients send the returned version as "since" on the next sync.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangesDTO {
+    private Long version;
+    private List<CategoryDTO> categories;
+    private List<ProductDTO> products;
+    private List<HamperBoxDTO> hamperBoxes;
+    private List<Long> deactivatedCategoryIds;
+    private List<Long> deactivatedProductIds;
+    private List<Long> deactivatedHamperBoxIds;
+}
@@ -0,0 +1,22 @@
+package com.chinggizz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a customer's orders, newest first
+ * nextCursor is passed back as ?cursor= to fetch the next page, and is null on the last page
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerOrderHistoryDTO {
+    private String customerPhone;
+    private List<OrderSummaryDTO> orders;
+    private String nextCursor;
+}
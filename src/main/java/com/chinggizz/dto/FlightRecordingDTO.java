@@ -0,0 +1,23 @@
+package com.chinggizz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of the in-process Flight Recorder recording, and where the last one was dumped
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightRecordingDTO {
+    private boolean recording;
+    private String settings;
+    private LocalDateTime startedAt;
+    private String file;
+    private Long fileBytes;
+}
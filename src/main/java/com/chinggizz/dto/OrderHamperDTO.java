@@ -26,5 +26,9 @@ public class OrderHamperDTO {
     private String hamperData;
     private String hamperName;
     private String screenshot;
+    private String screenshotSha256;
+    private String screenshotThumbnail;
+    private Long screenshotSize;
+    private Long screenshotThumbnailSize;
 }
 
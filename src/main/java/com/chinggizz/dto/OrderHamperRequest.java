@@ -1,5 +1,6 @@
 package com.chinggizz.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -28,7 +29,12 @@ public class OrderHamperRequest {
     // Custom name for the hamper
     private String hamperName;
 
-    // Base64 encoded screenshot of the 3D hamper arrangement
+    // Base64 encoded screenshot of the 3D hamper arrangement (JSON checkout),
+    // or the stored image URL when the screenshot arrived as a multipart part
     private String screenshot;
+
+    // Set by the server for multipart screenshots, never read from the client
+    @JsonIgnore
+    private String screenshotSha256;
 }
 
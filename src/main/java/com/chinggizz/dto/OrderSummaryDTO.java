@@ -0,0 +1,28 @@
+package com.chinggizz.dto;
+
+import com.chinggizz.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight order row for customer order history (no items, hampers or address)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryDTO {
+    private Long id;
+    private String orderNumber;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private Integer itemCount;
+    private Integer hamperCount;
+    private LocalDateTime deliveryDate;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,27 @@
+package com.chinggizz.dto;
+
+import com.chinggizz.enums.DeliveryMethod;
+import com.chinggizz.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Public order tracking view - status, timestamps and delivery info only
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderTrackingDTO {
+    private String orderNumber;
+    private OrderStatus status;
+    private DeliveryMethod deliveryMethod;
+    private LocalDateTime deliveryDate;
+    private String city;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,22 @@
+package com.chinggizz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Product facet counts for the catalog filter chips
+ * facets maps facet name (categoryId, productType, priceBucket, customizable, inStock)
+ * to the number of matching products per facet value
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetsDTO {
+    private Integer matchingProducts;
+    private Map<String, Map<String, Integer>> facets;
+}
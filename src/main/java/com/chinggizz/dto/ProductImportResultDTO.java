@@ -0,0 +1,33 @@
+package com.chinggizz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of a bulk product import
+ * Row numbers are 1-based data rows (the CSV header is not counted)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResultDTO {
+    private Integer totalRows;
+    private Integer inserted;
+    private Integer updated;
+    private Integer failed;
+    private Long durationMs;
+    private List<RowError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private Long row;
+        private String message;
+    }
+}
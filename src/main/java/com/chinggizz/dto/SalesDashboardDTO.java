@@ -0,0 +1,60 @@
+package com.chinggizz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sales Dashboard Data Transfer Object built from the sales_rollups summary table
+ * Totals are keyed by order status (byStatus) and by DIRECT / HAMPER (byChannel)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesDashboardDTO {
+    private LocalDate from;
+    private LocalDate to;
+    private Map<String, Totals> byStatus;
+    private Map<String, Totals> byChannel;
+    private List<DailySales> days;
+    private List<ProductSales> topProducts;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Totals {
+        private Long orders;
+        private Long units;
+        private BigDecimal revenue;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DailySales {
+        private LocalDate date;
+        private Map<String, Totals> byStatus;
+        private Map<String, Totals> byChannel;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProductSales {
+        private Long productId;
+        private String productName;
+        private Long orders;
+        private Long units;
+        private BigDecimal revenue;
+    }
+}
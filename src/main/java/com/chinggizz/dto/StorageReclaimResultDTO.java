@@ -0,0 +1,21 @@
+package com.chinggizz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of one orphaned-upload reclaim run
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorageReclaimResultDTO {
+    private int filesScanned;
+    private int referencedFiles;
+    private int filesDeleted;
+    private long bytesReclaimed;
+    private long durationMs;
+}
@@ -1,5 +1,6 @@
 package com.chinggizz.entity;
 
+import com.chinggizz.service.ActiveAdminCache;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -8,6 +9,7 @@ import lombok.*;
  */
 @Entity
 @Table(name = "admins")
+@EntityListeners(ActiveAdminCache.EvictOnChange.class)
 @Getter
 @Setter
 @NoArgsConstructor
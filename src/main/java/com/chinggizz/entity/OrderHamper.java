@@ -52,8 +52,23 @@ public class OrderHamper extends BaseEntity {
     @Column(name = "hamper_name", length = 200)
     private String hamperName;
 
-    // Base64 encoded screenshot of the 3D hamper arrangement
+    // Screenshot of the 3D hamper arrangement: image URL, or base64 from older JSON checkouts
     @Column(name = "screenshot", columnDefinition = "TEXT")
     private String screenshot;
+
+    // SHA-256 of the uploaded screenshot file (multipart checkouts only)
+    @Column(name = "screenshot_sha256", length = 64)
+    private String screenshotSha256;
+
+    // Small JPEG preview for order lists, written by the screenshot pipeline
+    @Column(name = "screenshot_thumbnail", length = 500)
+    private String screenshotThumbnail;
+
+    // Stored sizes in bytes of the screenshot and its thumbnail
+    @Column(name = "screenshot_size")
+    private Long screenshotSize;
+
+    @Column(name = "screenshot_thumbnail_size")
+    private Long screenshotThumbnailSize;
 }
 
@@ -1,5 +1,8 @@
 package com.chinggizz.enums;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * Order Status Enumeration
  */
@@ -8,6 +11,31 @@ public enum OrderStatus {
     CONFIRMED,      // Order confirmed by admin
     IN_PROGRESS,    // Order being prepared
     DELIVERED,      // Order delivered
-    CANCELLED       // Order cancelled
-}
+    CANCELLED;      // Order cancelled
 
+    /**
+     * Forward-only workflow: NEW -> CONFIRMED -> IN_PROGRESS -> DELIVERED,
+     * with cancellation allowed until the order is delivered
+     */
+    public boolean canTransitionTo(OrderStatus target) {
+        return switch (this) {
+            case NEW -> target == CONFIRMED || target == IN_PROGRESS || target == CANCELLED;
+            case CONFIRMED -> target == IN_PROGRESS || target == CANCELLED;
+            case IN_PROGRESS -> target == DELIVERED || target == CANCELLED;
+            case DELIVERED, CANCELLED -> false;
+        };
+    }
+
+    /**
+     * Statuses an order may move to the target status from
+     */
+    public static Set<OrderStatus> allowedSourcesFor(OrderStatus target) {
+        Set<OrderStatus> sources = EnumSet.noneOf(OrderStatus.class);
+        for (OrderStatus status : values()) {
+            if (status.canTransitionTo(target)) {
+                sources.add(status);
+            }
+        }
+        return sources;
+    }
+}
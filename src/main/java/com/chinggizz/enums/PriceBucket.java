@@ -0,0 +1,34 @@
+package com.chinggizz.enums;
+
+import java.math.BigDecimal;
+
+/**
+ * Price Bucket Enumeration - Price ranges used for catalog filter chips
+ */
+public enum PriceBucket {
+    UNDER_500(0, 500),          // Below ₹500
+    FROM_500_TO_1000(500, 1000),
+    FROM_1000_TO_2000(1000, 2000),
+    FROM_2000_TO_5000(2000, 5000),
+    ABOVE_5000(5000, Long.MAX_VALUE);
+
+    private final BigDecimal lowerInclusive;
+    private final BigDecimal upperExclusive;
+
+    PriceBucket(long lowerInclusive, long upperExclusive) {
+        this.lowerInclusive = BigDecimal.valueOf(lowerInclusive);
+        this.upperExclusive = BigDecimal.valueOf(upperExclusive);
+    }
+
+    public static PriceBucket of(BigDecimal price) {
+        if (price == null) {
+            return UNDER_500;
+        }
+        for (PriceBucket bucket : values()) {
+            if (price.compareTo(bucket.lowerInclusive) >= 0 && price.compareTo(bucket.upperExclusive) < 0) {
+                return bucket;
+            }
+        }
+        return ABOVE_5000;
+    }
+}
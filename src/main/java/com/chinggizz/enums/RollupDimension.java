@@ -0,0 +1,10 @@
+package com.chinggizz.enums;
+
+/**
+ * Sales Rollup Dimension Enumeration
+ */
+public enum RollupDimension {
+    STATUS,     // Orders and revenue per order status (key = OrderStatus)
+    CHANNEL,    // Direct items vs custom hampers (key = DIRECT / HAMPER)
+    PRODUCT     // Units and revenue per product (key = product id)
+}
@@ -0,0 +1,23 @@
+package com.chinggizz.event;
+
+import com.chinggizz.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published when an order is created, with a detached snapshot of what listeners need
+ */
+public record OrderCreatedEvent(Long orderId, String orderNumber, String customerPhone, OrderStatus status,
+                                LocalDateTime createdAt, BigDecimal totalAmount,
+                                List<ItemLine> items, List<BigDecimal> hamperTotals,
+                                List<ScreenshotFile> screenshots) {
+
+    public record ItemLine(Long productId, Integer quantity, BigDecimal totalPrice) {}
+
+    /**
+     * A hamper screenshot uploaded as a file (multipart checkout), by its public URL
+     */
+    public record ScreenshotFile(Long orderHamperId, String url) {}
+}
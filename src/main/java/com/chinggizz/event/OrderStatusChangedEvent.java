@@ -0,0 +1,17 @@
+package com.chinggizz.event;
+
+import com.chinggizz.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published once per status update call with every order that actually changed
+ * A bulk transition produces a single event carrying all of its changes.
+ */
+public record OrderStatusChangedEvent(List<Change> changes) {
+
+    public record Change(Long orderId, String orderNumber, String customerPhone, OrderStatus previousStatus, OrderStatus newStatus,
+                         LocalDateTime orderCreatedAt, BigDecimal totalAmount, LocalDateTime changedAt) {}
+}
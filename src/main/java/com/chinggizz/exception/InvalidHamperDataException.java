@@ -0,0 +1,12 @@
+package com.chinggizz.exception;
+
+/**
+ * Exception thrown when hamperData JSON is malformed or has invalid items
+ * The message names the JSON path and the line/column where parsing stopped
+ */
+public class InvalidHamperDataException extends BadRequestException {
+
+    public InvalidHamperDataException(String path, int line, int column, String reason) {
+        super(String.format("Invalid hamper data at %s (line %d, column %d): %s", path, line, column, reason));
+    }
+}
@@ -0,0 +1,19 @@
+package com.chinggizz.exception;
+
+/**
+ * Exception thrown when a request is shed because the service is overloaded
+ * Carries how long the client should wait before retrying (sent as Retry-After)
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
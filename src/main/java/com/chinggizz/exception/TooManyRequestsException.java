@@ -0,0 +1,19 @@
+package com.chinggizz.exception;
+
+/**
+ * Exception thrown when a client has to back off before trying again
+ * Carries how long the client should wait before retrying (sent as Retry-After)
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -2,8 +2,10 @@ package com.chinggizz.repository;
 
 import com.chinggizz.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,5 +14,9 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findByActiveTrue();
     List<Category> findByActiveTrueOrderByDisplayOrderAsc();
     Optional<Category> findByName(String name);
+    List<Category> findByUpdatedAtAfter(LocalDateTime since);
+
+    @Query("SELECT MAX(c.updatedAt) FROM Category c")
+    Optional<LocalDateTime> findMaxUpdatedAt();
 }
 
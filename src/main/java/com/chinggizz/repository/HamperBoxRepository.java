@@ -2,13 +2,20 @@ package com.chinggizz.repository;
 
 import com.chinggizz.entity.HamperBox;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface HamperBoxRepository extends JpaRepository<HamperBox, Long> {
     List<HamperBox> findByActiveTrue();
     List<HamperBox> findByActiveTrueOrderByPriceAsc();
+    List<HamperBox> findByUpdatedAtAfter(LocalDateTime since);
+
+    @Query("SELECT MAX(h.updatedAt) FROM HamperBox h")
+    Optional<LocalDateTime> findMaxUpdatedAt();
 }
 
@@ -0,0 +1,29 @@
+package com.chinggizz.repository;
+
+import com.chinggizz.entity.OrderHamper;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface OrderHamperRepository extends JpaRepository<OrderHamper, Long> {
+
+    /**
+     * Record processed screenshot renditions, guarded by the screenshot they were made from
+     * Returns 0 when the hamper is gone or its screenshot was replaced in the meantime
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE order_hampers SET screenshot = :screenshot, screenshot_size = :screenshotSize, " +
+            "screenshot_thumbnail = :thumbnail, screenshot_thumbnail_size = :thumbnailSize " +
+            "WHERE id = :id AND screenshot = :source", nativeQuery = true)
+    int updateScreenshotRenditions(@Param("id") Long id,
+                                   @Param("source") String source,
+                                   @Param("screenshot") String screenshot,
+                                   @Param("screenshotSize") long screenshotSize,
+                                   @Param("thumbnail") String thumbnail,
+                                   @Param("thumbnailSize") long thumbnailSize);
+}
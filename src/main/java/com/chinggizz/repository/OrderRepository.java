@@ -1,10 +1,17 @@
 package com.chinggizz.repository;
 
 import com.chinggizz.entity.Order;
+import com.chinggizz.enums.DeliveryMethod;
 import com.chinggizz.enums.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,7 +19,92 @@ import java.util.Optional;
 public interface OrderRepository extends JpaRepository<Order, Long> {
     Optional<Order> findByOrderNumber(String orderNumber);
     List<Order> findByStatus(OrderStatus status);
-    List<Order> findByCustomerPhone(String customerPhone);
     List<Order> findAllByOrderByCreatedAtDesc();
-}
 
+    Optional<TrackingView> findTrackingByOrderNumber(String orderNumber);
+    List<StatusView> findByIdIn(Collection<Long> ids);
+    List<StatusView> findByOrderNumberIn(Collection<String> orderNumbers);
+
+    /**
+     * Lock the orders that are still in the expected source status and return their ids
+     * Rows that changed concurrently are not returned, so the caller knows exactly which rows it moves
+     */
+    @Query(value = "SELECT id FROM orders WHERE id IN (:ids) AND status = :source FOR UPDATE", nativeQuery = true)
+    List<Long> lockIdsInStatus(@Param("ids") Collection<Long> ids, @Param("source") String source);
+
+    /**
+     * Set-based status transition guarded by the expected source status
+     * Returns the number of rows moved; rows that changed concurrently are left untouched
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE orders SET status = :target, updated_at = :updatedAt " +
+            "WHERE id IN (:ids) AND status = :source", nativeQuery = true)
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("source") String source,
+                     @Param("target") String target,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Newest orders for a customer, served by idx_orders_customer_phone_created_at
+     */
+    @Query(value = SUMMARY_SELECT + "WHERE o.customer_phone IN (:phones) " +
+            "ORDER BY o.created_at DESC, o.id DESC LIMIT :limit", nativeQuery = true)
+    List<SummaryView> findSummariesByCustomerPhone(@Param("phones") Collection<String> phones,
+                                                   @Param("limit") int limit);
+
+    /**
+     * Keyset page of a customer's orders strictly older than (createdAt, id)
+     */
+    @Query(value = SUMMARY_SELECT + "WHERE o.customer_phone IN (:phones) " +
+            "AND (o.created_at < :createdAt OR (o.created_at = :createdAt AND o.id < :id)) " +
+            "ORDER BY o.created_at DESC, o.id DESC LIMIT :limit", nativeQuery = true)
+    List<SummaryView> findSummariesByCustomerPhoneBefore(@Param("phones") Collection<String> phones,
+                                                         @Param("createdAt") LocalDateTime createdAt,
+                                                         @Param("id") Long id,
+                                                         @Param("limit") int limit);
+
+    String SUMMARY_SELECT = "SELECT o.id AS id, o.order_number AS orderNumber, o.status AS status, " +
+            "o.total_amount AS totalAmount, o.delivery_date AS deliveryDate, o.created_at AS createdAt, " +
+            "(SELECT COUNT(*) FROM order_items i WHERE i.order_id = o.id) AS itemCount, " +
+            "(SELECT COUNT(*) FROM order_hampers h WHERE h.order_id = o.id) AS hamperCount " +
+            "FROM orders o ";
+
+    /**
+     * Lightweight projection for status checks without loading the order graph
+     */
+    interface StatusView {
+        Long getId();
+        String getOrderNumber();
+        String getCustomerPhone();
+        OrderStatus getStatus();
+        BigDecimal getTotalAmount();
+        LocalDateTime getCreatedAt();
+    }
+
+    /**
+     * Order history row read straight from the orders table
+     */
+    interface SummaryView {
+        Long getId();
+        String getOrderNumber();
+        String getStatus();
+        BigDecimal getTotalAmount();
+        LocalDateTime getDeliveryDate();
+        LocalDateTime getCreatedAt();
+        Number getItemCount();
+        Number getHamperCount();
+    }
+
+    /**
+     * Customer-safe tracking fields (no name, phone or address)
+     */
+    interface TrackingView {
+        String getOrderNumber();
+        OrderStatus getStatus();
+        DeliveryMethod getDeliveryMethod();
+        LocalDateTime getDeliveryDate();
+        String getCity();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+    }
+}
@@ -3,15 +3,33 @@ package com.chinggizz.repository;
 import com.chinggizz.entity.Product;
 import com.chinggizz.enums.ProductType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
+    // Listings always show the category name, so it is fetched in the same query
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.active = true")
     List<Product> findByActiveTrue();
-    List<Product> findByCategoryIdAndActiveTrue(Long categoryId);
-    List<Product> findByProductTypeAndActiveTrue(ProductType productType);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.category.id = :categoryId AND p.active = true")
+    List<Product> findByCategoryIdAndActiveTrue(@Param("categoryId") Long categoryId);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.productType = :productType AND p.active = true")
+    List<Product> findByProductTypeAndActiveTrue(@Param("productType") ProductType productType);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.isCustomizable = true AND p.active = true")
     List<Product> findByIsCustomizableTrueAndActiveTrue();
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.updatedAt > :since")
+    List<Product> findUpdatedAfter(@Param("since") LocalDateTime since);
+
+    @Query("SELECT MAX(p.updatedAt) FROM Product p")
+    Optional<LocalDateTime> findMaxUpdatedAt();
 }
 
@@ -0,0 +1,100 @@
+package com.chinggizz.repository;
+
+import com.chinggizz.entity.SalesRollup;
+import com.chinggizz.enums.RollupDimension;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, Long> {
+
+    // Rebuilds only count orders up to the watermark, minus the ids not yet committed when it was taken
+    String REBUILD_SCOPE = "WHERE o.id <= :maxOrderId AND o.id NOT IN (:excludedIds) ";
+
+    List<SalesRollup> findByDimensionInAndRollupDateBetweenOrderByRollupDateAsc(
+            Collection<RollupDimension> dimensions, LocalDate from, LocalDate to);
+
+    /**
+     * Atomically add deltas to an existing rollup row; returns 0 when the row does not exist yet
+     */
+    @Modifying
+    @Query(value = "UPDATE sales_rollups SET order_count = order_count + :orders, units = units + :units, " +
+            "revenue = revenue + :revenue, updated_at = :now " +
+            "WHERE rollup_date = :day AND dimension = :dimension AND dimension_key = :dimensionKey", nativeQuery = true)
+    int increment(@Param("day") LocalDate day,
+                  @Param("dimension") String dimension,
+                  @Param("dimensionKey") String dimensionKey,
+                  @Param("orders") long orders,
+                  @Param("units") long units,
+                  @Param("revenue") BigDecimal revenue,
+                  @Param("now") LocalDateTime now);
+
+    /**
+     * Top products over a date range, read from the PRODUCT rollups
+     */
+    @Query(value = "SELECT dimension_key AS productKey, SUM(order_count) AS orderCount, SUM(units) AS units, " +
+            "SUM(revenue) AS revenue FROM sales_rollups " +
+            "WHERE dimension = 'PRODUCT' AND rollup_date BETWEEN :from AND :to " +
+            "GROUP BY dimension_key ORDER BY SUM(units) DESC LIMIT :limit", nativeQuery = true)
+    List<ProductTotals> findTopProducts(@Param("from") LocalDate from,
+                                        @Param("to") LocalDate to,
+                                        @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM sales_rollups", nativeQuery = true)
+    int deleteAllRollups();
+
+    @Query(value = "SELECT COALESCE(MAX(id), 0) FROM orders", nativeQuery = true)
+    long findMaxOrderId();
+
+    @Query(value = "SELECT id FROM orders WHERE id > :after AND id <= :upTo", nativeQuery = true)
+    List<Long> findOrderIdsBetween(@Param("after") long after, @Param("upTo") long upTo);
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_rollups (rollup_date, dimension, dimension_key, order_count, units, revenue, created_at, updated_at) " +
+            "SELECT CAST(o.created_at AS DATE), 'STATUS', o.status, COUNT(*), 0, SUM(o.total_amount), :now, :now " +
+            "FROM orders o " + REBUILD_SCOPE + "GROUP BY CAST(o.created_at AS DATE), o.status", nativeQuery = true)
+    int rebuildStatusRollups(@Param("now") LocalDateTime now,
+            @Param("maxOrderId") long maxOrderId,
+            @Param("excludedIds") Collection<Long> excludedIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_rollups (rollup_date, dimension, dimension_key, order_count, units, revenue, created_at, updated_at) " +
+            "SELECT CAST(o.created_at AS DATE), 'CHANNEL', 'DIRECT', COUNT(DISTINCT o.id), SUM(oi.quantity), SUM(oi.total_price), :now, :now " +
+            "FROM orders o JOIN order_items oi ON oi.order_id = o.id " + REBUILD_SCOPE + "GROUP BY CAST(o.created_at AS DATE)", nativeQuery = true)
+    int rebuildDirectChannelRollups(@Param("now") LocalDateTime now,
+            @Param("maxOrderId") long maxOrderId,
+            @Param("excludedIds") Collection<Long> excludedIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_rollups (rollup_date, dimension, dimension_key, order_count, units, revenue, created_at, updated_at) " +
+            "SELECT CAST(o.created_at AS DATE), 'CHANNEL', 'HAMPER', COUNT(DISTINCT o.id), COUNT(oh.id), SUM(oh.total_price), :now, :now " +
+            "FROM orders o JOIN order_hampers oh ON oh.order_id = o.id " + REBUILD_SCOPE + "GROUP BY CAST(o.created_at AS DATE)", nativeQuery = true)
+    int rebuildHamperChannelRollups(@Param("now") LocalDateTime now,
+            @Param("maxOrderId") long maxOrderId,
+            @Param("excludedIds") Collection<Long> excludedIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_rollups (rollup_date, dimension, dimension_key, order_count, units, revenue, created_at, updated_at) " +
+            "SELECT CAST(o.created_at AS DATE), 'PRODUCT', CAST(oi.product_id AS VARCHAR(100)), COUNT(DISTINCT o.id), SUM(oi.quantity), SUM(oi.total_price), :now, :now " +
+            "FROM orders o JOIN order_items oi ON oi.order_id = o.id " + REBUILD_SCOPE + "GROUP BY CAST(o.created_at AS DATE), oi.product_id", nativeQuery = true)
+    int rebuildProductRollups(@Param("now") LocalDateTime now,
+            @Param("maxOrderId") long maxOrderId,
+            @Param("excludedIds") Collection<Long> excludedIds);
+
+    interface ProductTotals {
+        String getProductKey();
+        Long getOrderCount();
+        Long getUnits();
+        BigDecimal getRevenue();
+    }
+}
@@ -1,19 +1,25 @@
 package com.chinggizz.security;
 
+import com.chinggizz.timing.RequestTimings;
 import com.chinggizz.util.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.stream.Stream;
 
 /**
  * JWT Authentication Filter
@@ -22,37 +28,45 @@ import java.util.ArrayList;
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
-    
+
+    // Public storefront reads never need the caller's identity, so their tokens aren't checked at all
+    private static final RequestMatcher PUBLIC_READS = new OrRequestMatcher(Stream.of(
+                    "/api/health/**",
+                    "/api/categories/**",
+                    "/api/products/**",
+                    "/api/hamper-boxes/**",
+                    "/api/bootstrap",
+                    "/api/catalog/**",
+                    "/api/orders/track/**")
+            .map(pattern -> (RequestMatcher) new AntPathRequestMatcher(pattern, HttpMethod.GET.name()))
+            .toList());
+
     private final JwtUtil jwtUtil;
-    
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return HttpMethod.OPTIONS.matches(request.getMethod()) || PUBLIC_READS.matches(request);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        
+
         final String authorizationHeader = request.getHeader("Authorization");
-        
-        String username = null;
-        String jwt = null;
-        
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                // Invalid token
-            }
-        }
-        
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtil.validateToken(jwt, username)) {
+
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Verified once per token; repeat calls with the same token are served from JwtUtil's cache
+            String username = jwtUtil.verifyToken(authorizationHeader.substring(7));
+            if (username != null) {
                 UsernamePasswordAuthenticationToken authenticationToken =
                         new UsernamePasswordAuthenticationToken(username, null, new ArrayList<>());
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+                RequestTimings.callerAuthenticated();
             }
         }
-        
+
         filterChain.doFilter(request, response);
     }
 }
-
@@ -0,0 +1,61 @@
+package com.chinggizz.service;
+
+import com.chinggizz.entity.Admin;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admins who recently logged in successfully, so repeated logins skip the database
+ * Only entries whose password was just verified are stored, and any change to an admin through
+ * JPA (password, username, deactivation, removal) evicts it at once; changes made directly in the
+ * database, or on another instance, take effect when the entry expires.
+ */
+@Component
+public class ActiveAdminCache {
+
+    private final Cache<String, Admin> admins = Caffeine.newBuilder()
+            .maximumSize(100)
+            .expireAfterWrite(60, TimeUnit.SECONDS)
+            .build();
+
+    public Admin get(String username) {
+        return admins.getIfPresent(username);
+    }
+
+    public void put(Admin admin) {
+        admins.put(admin.getUsername(), admin);
+    }
+
+    /**
+     * Drop an admin by id as well as by name, in case the change was a rename
+     */
+    public void evict(Admin admin) {
+        admins.invalidate(admin.getUsername());
+        if (admin.getId() != null) {
+            admins.asMap().values().removeIf(cached -> admin.getId().equals(cached.getId()));
+        }
+    }
+
+    /**
+     * Entity listener on Admin; Hibernate obtains it through Spring, which injects the cache
+     */
+    public static class EvictOnChange {
+
+        private final ActiveAdminCache cache;
+
+        public EvictOnChange(ActiveAdminCache cache) {
+            this.cache = cache;
+        }
+
+        @PostUpdate
+        @PostRemove
+        void evict(Admin admin) {
+            cache.evict(admin);
+        }
+    }
+}
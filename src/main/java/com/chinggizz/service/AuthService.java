@@ -4,35 +4,72 @@ import com.chinggizz.dto.LoginRequest;
 import com.chinggizz.dto.LoginResponse;
 import com.chinggizz.entity.Admin;
 import com.chinggizz.exception.BadRequestException;
+import com.chinggizz.exception.ServiceUnavailableException;
+import com.chinggizz.exception.TooManyRequestsException;
 import com.chinggizz.repository.AdminRepository;
 import com.chinggizz.util.JwtUtil;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service for Authentication operations
+ * BCrypt checks run on a small bounded pool rather than on the request thread, so a login flood can
+ * only tie up a handful of Tomcat workers; the rest are turned away at once with 503. Repeated
+ * failures back off per username and per client IP (see LoginAttemptTracker).
  */
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
+@Slf4j
 public class AuthService {
-    
+
+    private static final int WORKERS = 2;
+    private static final int QUEUE_CAPACITY = 6;
+    private static final long WAIT_SECONDS = 5;
+    private static final long RETRY_AFTER_SECONDS = 2;
+    private static final String INVALID_CREDENTIALS = "Invalid username or password";
+
     private final AdminRepository adminRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
-    
-    public LoginResponse login(LoginRequest request) {
-        Admin admin = adminRepository.findByUsernameAndActiveTrue(request.getUsername())
-                .orElseThrow(() -> new BadRequestException("Invalid username or password"));
-        
-        if (!passwordEncoder.matches(request.getPassword(), admin.getPassword())) {
-            throw new BadRequestException("Invalid username or password");
+    private final LoginAttemptTracker loginAttemptTracker;
+    private final ActiveAdminCache activeAdmins;
+
+    private final AtomicInteger workerCount = new AtomicInteger();
+    private final ThreadPoolExecutor passwordCheckers = new ThreadPoolExecutor(WORKERS, WORKERS, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                Thread thread = new Thread(runnable, "login-bcrypt-" + workerCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public LoginResponse login(LoginRequest request, String clientIp) {
+        long retryAfter = loginAttemptTracker.retryAfterSeconds(request.getUsername(), clientIp);
+        if (retryAfter > 0) {
+            throw new TooManyRequestsException("Too many failed login attempts. Please try again later.", retryAfter);
         }
-        
+
+        Admin admin = findActiveAdmin(request.getUsername());
+        if (admin == null || !passwordMatches(request.getPassword(), admin.getPassword())) {
+            loginAttemptTracker.recordFailure(request.getUsername(), clientIp);
+            throw new BadRequestException(INVALID_CREDENTIALS);
+        }
+        loginAttemptTracker.recordSuccess(request.getUsername(), clientIp);
+        activeAdmins.put(admin);
+
         String token = jwtUtil.generateToken(admin.getUsername());
-        
+
         return LoginResponse.builder()
                 .token(token)
                 .type("Bearer")
@@ -40,5 +77,37 @@ public class AuthService {
                 .fullName(admin.getFullName())
                 .build();
     }
-}
 
+    @PreDestroy
+    public void shutdown() {
+        passwordCheckers.shutdownNow();
+    }
+
+    private Admin findActiveAdmin(String username) {
+        Admin cached = activeAdmins.get(username);
+        return cached != null ? cached : adminRepository.findByUsernameAndActiveTrue(username).orElse(null);
+    }
+
+    private boolean passwordMatches(String rawPassword, String encodedPassword) {
+        Future<Boolean> check;
+        try {
+            check = passwordCheckers.submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+        } catch (RejectedExecutionException e) {
+            log.warn("Login verification queue full, rejecting login attempt");
+            throw new ServiceUnavailableException("Too many login attempts in progress. Please try again shortly.",
+                    RETRY_AFTER_SECONDS);
+        }
+        try {
+            return check.get(WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            check.cancel(true);
+            throw new ServiceUnavailableException("Login verification timed out. Please try again shortly.",
+                    RETRY_AFTER_SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Login verification was interrupted", RETRY_AFTER_SECONDS);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password verification failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.chinggizz.service;
+
+import com.chinggizz.dto.BootstrapDTO;
+import com.chinggizz.timing.CatalogLoadEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Service for the one-shot storefront bootstrap payload
+ * The payload is serialized once and cached in the "bootstrap" cache, which is evicted
+ * together with the categories, products and hamperBoxes caches on every catalog write.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BootstrapService {
+
+    public static final String CACHE_NAME = "bootstrap";
+
+    private final CategoryService categoryService;
+    private final ProductService productService;
+    private final HamperBoxService hamperBoxService;
+    private final CatalogVersionService catalogVersionService;
+    private final ObjectMapper objectMapper;
+
+    @Cacheable(value = CACHE_NAME, key = "'storefront'")
+    public Snapshot getSnapshot() {
+        CatalogLoadEvent load = CatalogLoadEvent.begin(CACHE_NAME, "storefront");
+        // Captured before loading so delta sync from this version never skips a change; every bump
+        // clears the catalog caches, so the lists below are at least as new as this version
+        BootstrapDTO bootstrap = BootstrapDTO.builder()
+                .catalogVersion(catalogVersionService.getCurrentVersion())
+                .categories(categoryService.getAllActiveCategories())
+                .products(productService.getAllActiveProducts())
+                .hamperBoxes(hamperBoxService.getAllActiveHamperBoxes())
+                .build();
+
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(bootstrap);
+            String etag = "\"" + digest(body) + "\"";
+            log.info("Bootstrap payload regenerated: {} bytes, ETag {}", body.length, etag);
+            load.commit(bootstrap.getProducts().size(), body.length);
+            return new Snapshot(body, etag);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize bootstrap payload", e);
+        }
+    }
+
+    private String digest(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Pre-serialized bootstrap JSON and its combined version ETag
+     */
+    public record Snapshot(byte[] body, String etag) {}
+}
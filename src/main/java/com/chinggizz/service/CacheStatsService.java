@@ -0,0 +1,59 @@
+package com.chinggizz.service;
+
+import com.chinggizz.dto.CacheStatsDTO;
+import com.chinggizz.util.JwtUtil;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reports hit ratios and sizes of the application caches, including the off-heap image cache
+ * and the verified JWT cache
+ */
+@Service
+@RequiredArgsConstructor
+public class CacheStatsService {
+
+    public static final String HOT_IMAGES = "hotImages";
+
+    private final CacheManager cacheManager;
+    private final HotImageCache hotImageCache;
+    private final JwtUtil jwtUtil;
+
+    public List<CacheStatsDTO> getCacheStats() {
+        List<CacheStatsDTO> caches = new ArrayList<>();
+        cacheManager.getCacheNames().stream()
+                .sorted()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .filter(CaffeineCache.class::isInstance)
+                .map(CaffeineCache.class::cast)
+                .forEach(cache -> caches.add(toDTO(cache.getName(),
+                        cache.getNativeCache().estimatedSize(), cache.getNativeCache().stats())));
+
+        CacheStatsDTO hotImages = toDTO(HOT_IMAGES, hotImageCache.estimatedSize(), hotImageCache.stats());
+        hotImages.setWeightedBytes(hotImageCache.weightedBytes());
+        hotImages.setMaxBytes(hotImageCache.maxBytes());
+        caches.add(hotImages);
+
+        caches.add(toDTO(JwtUtil.VERIFIED_TOKENS, jwtUtil.verifiedCacheSize(), jwtUtil.verifiedCacheStats()));
+        return caches;
+    }
+
+    private CacheStatsDTO toDTO(String name, long size, CacheStats stats) {
+        return CacheStatsDTO.builder()
+                .name(name)
+                .size(size)
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .hitRatio(stats.hitRate())
+                .evictions(stats.evictionCount())
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.chinggizz.service;
+
+import com.chinggizz.dto.CatalogChangesDTO;
+import com.chinggizz.dto.CategoryDTO;
+import com.chinggizz.dto.HamperBoxDTO;
+import com.chinggizz.dto.ProductDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Service for catalog delta sync
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogService {
+
+    /**
+     * Overlap applied to "since" so writes that commit slightly after their updated_at
+     * timestamp are not missed. Upserts are idempotent, so re-sending them is harmless.
+     */
+    private static final long SYNC_OVERLAP_MILLIS = 5_000;
+
+    private final CatalogVersionService catalogVersionService;
+    private final CategoryService categoryService;
+    private final ProductService productService;
+    private final HamperBoxService hamperBoxService;
+
+    /**
+     * Entities changed after the given version
+     * Clients that are already current are answered from memory without a database round trip.
+     */
+    public CatalogChangesDTO getChangesSince(long since) {
+        long version = catalogVersionService.getCurrentVersion();
+        if (since >= version) {
+            return CatalogChangesDTO.builder()
+                    .version(version)
+                    .categories(List.of())
+                    .products(List.of())
+                    .hamperBoxes(List.of())
+                    .deactivatedCategoryIds(List.of())
+                    .deactivatedProductIds(List.of())
+                    .deactivatedHamperBoxIds(List.of())
+                    .build();
+        }
+
+        LocalDateTime after = CatalogVersionService.fromVersion(Math.max(0, since - SYNC_OVERLAP_MILLIS));
+        List<CategoryDTO> categories = categoryService.getCategoriesUpdatedAfter(after);
+        List<ProductDTO> products = productService.getProductsUpdatedAfter(after);
+        List<HamperBoxDTO> hamperBoxes = hamperBoxService.getHamperBoxesUpdatedAfter(after);
+
+        return CatalogChangesDTO.builder()
+                .version(version)
+                .categories(filter(categories, CategoryDTO::getActive))
+                .products(filter(products, ProductDTO::getActive))
+                .hamperBoxes(filter(hamperBoxes, HamperBoxDTO::getActive))
+                .deactivatedCategoryIds(deactivatedIds(categories, CategoryDTO::getActive, CategoryDTO::getId))
+                .deactivatedProductIds(deactivatedIds(products, ProductDTO::getActive, ProductDTO::getId))
+                .deactivatedHamperBoxIds(deactivatedIds(hamperBoxes, HamperBoxDTO::getActive, HamperBoxDTO::getId))
+                .build();
+    }
+
+    private <T> List<T> filter(List<T> items, Function<T, Boolean> active) {
+        return items.stream()
+                .filter(item -> Boolean.TRUE.equals(active.apply(item)))
+                .toList();
+    }
+
+    private <T> List<Long> deactivatedIds(List<T> items, Function<T, Boolean> active, Function<T, Long> id) {
+        return items.stream()
+                .filter(item -> !Boolean.TRUE.equals(active.apply(item)))
+                .map(id)
+                .toList();
+    }
+}
@@ -0,0 +1,167 @@
+package com.chinggizz.service;
+
+import com.chinggizz.entity.BaseEntity;
+import com.chinggizz.entity.Category;
+import com.chinggizz.entity.HamperBox;
+import com.chinggizz.entity.Product;
+import com.chinggizz.repository.CategoryRepository;
+import com.chinggizz.repository.HamperBoxRepository;
+import com.chinggizz.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Monotonically increasing catalog version
+ * The version is the epoch millis of the newest updated_at across categories, products and
+ * hamper boxes. Every catalog write bumps it after commit to max(updated_at, version + 1), so a
+ * write that commits late (with an older timestamp) still moves the version forward. Each bump also
+ * evicts the caches the changed entities feed, so a cached list is never older than the version
+ * handed out with it (stock decrements from orders bump the version without going through the
+ * catalog services). Writes in one transaction are bumped and evicted once, at commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogVersionService {
+
+    // JPA auditing fills updated_at from LocalDateTime.now() in the JVM default zone
+    private static final ZoneId AUDIT_ZONE = ZoneId.systemDefault();
+
+    private static final List<String> PRODUCT_CACHES = List.of(
+            "products", "productsByCategory", "productsByType", BootstrapService.CACHE_NAME);
+    // Product lists carry their category's name
+    private static final List<String> CATEGORY_CACHES = List.of(
+            "categories", "products", "productsByCategory", "productsByType", BootstrapService.CACHE_NAME);
+    private static final List<String> HAMPER_BOX_CACHES = List.of("hamperBoxes", BootstrapService.CACHE_NAME);
+    private static final List<String> CATALOG_CACHES = List.of(
+            "products", "productsByCategory", "productsByType", "categories", "hamperBoxes", BootstrapService.CACHE_NAME);
+
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final HamperBoxRepository hamperBoxRepository;
+    private final CacheManager cacheManager;
+
+    private final AtomicLong version = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void initialize() {
+        long latest = Stream.of(
+                        categoryRepository.findMaxUpdatedAt(),
+                        productRepository.findMaxUpdatedAt(),
+                        hamperBoxRepository.findMaxUpdatedAt())
+                .flatMap(Optional::stream)
+                .mapToLong(CatalogVersionService::toVersion)
+                .max()
+                .orElse(0L);
+        version.accumulateAndGet(latest, Math::max);
+        log.info("Catalog version initialized at {}", version.get());
+    }
+
+    public long getCurrentVersion() {
+        return version.get();
+    }
+
+    /**
+     * Bump the version once the surrounding transaction commits
+     * updated_at is read after commit because auditing only sets it at flush time. Every entity
+     * changed in the transaction is collected into a single bump.
+     */
+    public void bumpAfterCommit(BaseEntity entity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(entity.getUpdatedAt(), cachesFedBy(entity));
+            return;
+        }
+        PendingBump pending = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(PendingBump.class::isInstance)
+                .map(PendingBump.class::cast)
+                .filter(candidate -> candidate.owner() == this)
+                .findFirst()
+                .orElseGet(() -> {
+                    PendingBump created = new PendingBump();
+                    TransactionSynchronizationManager.registerSynchronization(created);
+                    return created;
+                });
+        pending.entities.add(entity);
+    }
+
+    /**
+     * Bump the version for product writes made outside JPA (e.g. JDBC batches) with an explicit updated_at
+     */
+    public void bump(LocalDateTime updatedAt) {
+        bump(updatedAt, PRODUCT_CACHES);
+    }
+
+    private void bump(LocalDateTime updatedAt, Collection<String> caches) {
+        long updated = updatedAt != null ? toVersion(updatedAt) : System.currentTimeMillis();
+        version.accumulateAndGet(updated, (current, candidate) -> Math.max(current + 1, candidate));
+        for (String name : caches) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private static List<String> cachesFedBy(BaseEntity entity) {
+        return switch (entity) {
+            case Product product -> PRODUCT_CACHES;
+            case Category category -> CATEGORY_CACHES;
+            case HamperBox hamperBox -> HAMPER_BOX_CACHES;
+            default -> CATALOG_CACHES;
+        };
+    }
+
+    public static long toVersion(LocalDateTime updatedAt) {
+        return updatedAt.atZone(AUDIT_ZONE).toInstant().toEpochMilli();
+    }
+
+    public static LocalDateTime fromVersion(long version) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(version), AUDIT_ZONE);
+    }
+
+    /**
+     * The catalog entities written in one transaction, bumped together after it commits
+     */
+    private class PendingBump implements TransactionSynchronization {
+
+        private final List<BaseEntity> entities = new ArrayList<>();
+
+        CatalogVersionService owner() {
+            return CatalogVersionService.this;
+        }
+
+        @Override
+        public void afterCommit() {
+            LocalDateTime latest = entities.stream()
+                    .map(BaseEntity::getUpdatedAt)
+                    .filter(Objects::nonNull)
+                    .max(LocalDateTime::compareTo)
+                    .orElse(null);
+            Set<String> caches = new LinkedHashSet<>();
+            entities.forEach(entity -> caches.addAll(cachesFedBy(entity)));
+            bump(latest, caches);
+        }
+    }
+}
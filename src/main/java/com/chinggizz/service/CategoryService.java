@@ -4,12 +4,14 @@ import com.chinggizz.dto.CategoryDTO;
 import com.chinggizz.entity.Category;
 import com.chinggizz.exception.ResourceNotFoundException;
 import com.chinggizz.repository.CategoryRepository;
+import com.chinggizz.timing.CatalogLoadEvent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,13 +21,17 @@ import java.util.stream.Collectors;
 public class CategoryService {
     
     private final CategoryRepository categoryRepository;
+    private final CatalogVersionService catalogVersionService;
     
     @Cacheable(value = "categories", unless = "#result.isEmpty()")
     public List<CategoryDTO> getAllActiveCategories() {
-        return categoryRepository.findByActiveTrueOrderByDisplayOrderAsc()
+        CatalogLoadEvent load = CatalogLoadEvent.begin("categories", null);
+        List<CategoryDTO> loaded = categoryRepository.findByActiveTrueOrderByDisplayOrderAsc()
                 .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        load.commit(loaded.size(), 0);
+        return loaded;
     }
 
     public CategoryDTO getCategoryById(Long id) {
@@ -34,8 +40,18 @@ public class CategoryService {
         return convertToDTO(category);
     }
 
+    /**
+     * Active and deactivated categories changed after the given time, for catalog delta sync
+     */
+    public List<CategoryDTO> getCategoriesUpdatedAfter(LocalDateTime since) {
+        return categoryRepository.findByUpdatedAtAfter(since)
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
     @Transactional
-    @CacheEvict(value = "categories", allEntries = true)
+    @CacheEvict(value = {"categories", "bootstrap"}, allEntries = true)
     public CategoryDTO createCategory(CategoryDTO categoryDTO) {
         Category category = Category.builder()
                 .name(categoryDTO.getName())
@@ -46,11 +62,12 @@ public class CategoryService {
                 .build();
         
         Category saved = categoryRepository.save(category);
+        catalogVersionService.bumpAfterCommit(saved);
         return convertToDTO(saved);
     }
     
     @Transactional
-    @CacheEvict(value = "categories", allEntries = true)
+    @CacheEvict(value = {"categories", "bootstrap"}, allEntries = true)
     public CategoryDTO updateCategory(Long id, CategoryDTO categoryDTO) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
@@ -62,16 +79,18 @@ public class CategoryService {
         category.setActive(categoryDTO.getActive());
 
         Category updated = categoryRepository.save(category);
+        catalogVersionService.bumpAfterCommit(updated);
         return convertToDTO(updated);
     }
 
     @Transactional
-    @CacheEvict(value = "categories", allEntries = true)
+    @CacheEvict(value = {"categories", "bootstrap"}, allEntries = true)
     public void deleteCategory(Long id) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
         category.setActive(false);
         categoryRepository.save(category);
+        catalogVersionService.bumpAfterCommit(category);
     }
     
     private CategoryDTO convertToDTO(Category category) {
@@ -0,0 +1,140 @@
+package com.chinggizz.service;
+
+import com.chinggizz.dto.CustomerOrderHistoryDTO;
+import com.chinggizz.dto.OrderSummaryDTO;
+import com.chinggizz.enums.OrderStatus;
+import com.chinggizz.event.OrderCreatedEvent;
+import com.chinggizz.event.OrderStatusChangedEvent;
+import com.chinggizz.exception.BadRequestException;
+import com.chinggizz.repository.OrderRepository;
+import com.chinggizz.util.PhoneNumbers;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Customer order history lookup by normalised phone number
+ * The first page per phone is cached briefly and evicted after commit whenever an order
+ * for that phone is created or changes status; older pages use a keyset cursor on
+ * (created_at, id) so repeat customers never scan their whole history.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerOrderHistoryService {
+
+    public static final String CACHE = "customerOrders";
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 50;
+
+    private final OrderRepository orderRepository;
+    private final CacheManager cacheManager;
+
+    public CustomerOrderHistoryDTO getHistory(String phone, Integer limit, String cursor) {
+        String normalized = PhoneNumbers.normalize(phone);
+        if (normalized == null) {
+            throw new BadRequestException("Phone number is required");
+        }
+        int pageSize = limit != null ? limit : DEFAULT_LIMIT;
+        if (pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        List<String> phones = PhoneNumbers.storedForms(normalized);
+
+        // Fetch one extra row to know whether another page exists
+        List<OrderSummaryDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            List<OrderSummaryDTO> firstPage = cache().get(normalized,
+                    () -> toSummaries(orderRepository.findSummariesByCustomerPhone(phones, MAX_LIMIT + 1)));
+            rows = firstPage.subList(0, Math.min(firstPage.size(), pageSize + 1));
+        } else {
+            Cursor position = Cursor.decode(cursor);
+            rows = toSummaries(orderRepository.findSummariesByCustomerPhoneBefore(
+                    phones, position.createdAt(), position.id(), pageSize + 1));
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<OrderSummaryDTO> page = List.copyOf(hasMore ? rows.subList(0, pageSize) : rows);
+        String nextCursor = hasMore ? Cursor.of(page.get(page.size() - 1)).encode() : null;
+
+        return CustomerOrderHistoryDTO.builder()
+                .customerPhone(normalized)
+                .orders(page)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @TransactionalEventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        evict(event.customerPhone());
+    }
+
+    @TransactionalEventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        event.changes().stream()
+                .map(OrderStatusChangedEvent.Change::customerPhone)
+                .distinct()
+                .forEach(this::evict);
+    }
+
+    private void evict(String phone) {
+        String normalized = PhoneNumbers.normalize(phone);
+        if (normalized != null) {
+            cache().evict(normalized);
+        }
+    }
+
+    private Cache cache() {
+        return Objects.requireNonNull(cacheManager.getCache(CACHE), "Cache " + CACHE + " is not configured");
+    }
+
+    private List<OrderSummaryDTO> toSummaries(List<OrderRepository.SummaryView> views) {
+        return views.stream()
+                .map(view -> OrderSummaryDTO.builder()
+                        .id(view.getId())
+                        .orderNumber(view.getOrderNumber())
+                        .status(OrderStatus.valueOf(view.getStatus()))
+                        .totalAmount(view.getTotalAmount())
+                        .itemCount(view.getItemCount().intValue())
+                        .hamperCount(view.getHamperCount().intValue())
+                        .deliveryDate(view.getDeliveryDate())
+                        .createdAt(view.getCreatedAt())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Opaque keyset position: base64url("createdAt|id") of the last row on a page
+     */
+    private record Cursor(LocalDateTime createdAt, Long id) {
+
+        static Cursor of(OrderSummaryDTO order) {
+            return new Cursor(order.getCreatedAt(), order.getId());
+        }
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+    }
+}
@@ -1,26 +1,58 @@
 package com.chinggizz.service;
 
+import com.chinggizz.exception.BadRequestException;
 import com.chinggizz.exception.FileStorageException;
+import com.chinggizz.service.storage.ObjectStore;
+import com.chinggizz.timing.StorageIoEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 @Service
 @Slf4j
 public class FileStorageService {
 
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-fA-F]{64}");
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("\\.[a-z0-9]{1,10}");
+
     private final Path fileStorageLocation;
+    private final ObjectStore objectStore;
+    private final HotImageCache hotImageCache;
+    private final Cache<String, FileMetadata> metadataCache = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .build();
 
-    public FileStorageService(@Value("${app.upload.dir:uploads/products}") String uploadDir) {
+    public FileStorageService(@Value("${app.upload.dir:uploads/products}") String uploadDir,
+                              ObjectStore objectStore,
+                              HotImageCache hotImageCache) {
+        this.objectStore = objectStore;
+        this.hotImageCache = hotImageCache;
         this.fileStorageLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
         
         try {
@@ -32,46 +64,325 @@ public class FileStorageService {
     }
 
     /**
-     * Store uploaded file and return the file path
+     * Store uploaded file under its content hash and return the stored file
+     * Uploading the same image again (e.g. for several products) reuses the existing file.
      */
-    public String storeFile(MultipartFile file) {
+    public StoredFile storeFile(MultipartFile file) {
         // Normalize file name
         String originalFileName = StringUtils.cleanPath(file.getOriginalFilename());
-        
+
+        // Check if the file's name contains invalid characters
+        if (originalFileName.contains("..")) {
+            throw new FileStorageException("Sorry! Filename contains invalid path sequence " + originalFileName);
+        }
+
+        String fileExtension = "";
+        if (originalFileName.contains(".")) {
+            fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
+        }
+
+        try (InputStream in = file.getInputStream()) {
+            return storeContentAddressed(in, fileExtension, Long.MAX_VALUE);
+        } catch (IOException ex) {
+            throw new FileStorageException("Could not store file " + originalFileName + ". Please try again!", ex);
+        }
+    }
+
+    /**
+     * Store a raw upload stream under its content hash, reading at most maxBytes
+     * When the client already knows the SHA-256 and that content is stored, the body is not read at all.
+     */
+    public StoredFile storeFile(InputStream in, String fileExtension, long maxBytes, String expectedSha256) {
+        String extension = normalizeExtension(fileExtension);
+        if (expectedSha256 != null && SHA256_HEX.matcher(expectedSha256).matches()) {
+            String fileName = expectedSha256.toLowerCase(Locale.ROOT) + extension;
+            Optional<ObjectStore.StoredObject> existing = findStored(fileName);
+            if (existing.isPresent()) {
+                touch(fileName);
+                log.info("Upload deduplicated by client digest: {}", fileName);
+                return new StoredFile(fileName, expectedSha256.toLowerCase(Locale.ROOT), existing.get().size(), true);
+            }
+        }
+
         try {
-            // Check if the file's name contains invalid characters
-            if (originalFileName.contains("..")) {
-                throw new FileStorageException("Sorry! Filename contains invalid path sequence " + originalFileName);
+            return storeContentAddressed(in, extension, maxBytes);
+        } catch (IOException ex) {
+            throw new FileStorageException("Could not store upload. Please try again!", ex);
+        }
+    }
+
+    /**
+     * Stream an uploaded file to storage while computing its SHA-256 digest
+     * The upload is copied once through a DigestInputStream, so neither the bytes
+     * nor a base64 copy of them is ever held on the heap. The name stays unique (not
+     * content-addressed) because the screenshot pipeline later replaces the file per hamper.
+     */
+    public StoredFile storeWithDigest(MultipartFile file, String prefix, String fileExtension) {
+        String uniqueFileName = prefix + UUID.randomUUID() + normalizeExtension(fileExtension);
+        Path targetLocation = this.fileStorageLocation.resolve(uniqueFileName);
+
+        StorageIoEvent event = StorageIoEvent.begin("store", !objectStore.isLocal());
+        try (InputStream in = file.getInputStream()) {
+            TempUpload upload = streamToTemp(in, Long.MAX_VALUE);
+            try {
+                Files.move(upload.path(), targetLocation, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(upload.path());
             }
+            publish(uniqueFileName);
+
+            log.info("File stored successfully: {} ({} bytes, sha256 {})", uniqueFileName, upload.size(), upload.sha256());
+            event.commit(uniqueFileName, upload.size());
+            return new StoredFile(uniqueFileName, upload.sha256(), upload.size(), false);
+        } catch (IOException ex) {
+            throw new FileStorageException("Could not store file " + file.getOriginalFilename() + ". Please try again!", ex);
+        }
+    }
 
-            // Generate unique filename to avoid conflicts
-            String fileExtension = "";
-            if (originalFileName.contains(".")) {
-                fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
+    /**
+     * Stream to a temp file in the storage directory, hashing on the way, then atomically
+     * rename it to <sha256><ext>; if that name already exists the temp copy is simply dropped
+     */
+    private StoredFile storeContentAddressed(InputStream in, String fileExtension, long maxBytes) throws IOException {
+        StorageIoEvent event = StorageIoEvent.begin("store", !objectStore.isLocal());
+        TempUpload upload = streamToTemp(in, maxBytes);
+        try {
+            String fileName = upload.sha256() + normalizeExtension(fileExtension);
+            Path targetLocation = this.fileStorageLocation.resolve(fileName);
+            if (findStored(fileName).isPresent()) {
+                touch(fileName);
+                log.info("Upload deduplicated: {} ({} bytes)", fileName, upload.size());
+                event.commit(fileName, upload.size());
+                return new StoredFile(fileName, upload.sha256(), upload.size(), true);
             }
-            String uniqueFileName = UUID.randomUUID().toString() + fileExtension;
+            // Same name means same bytes, so losing a concurrent race to an identical upload is harmless
+            Files.move(upload.path(), targetLocation, StandardCopyOption.ATOMIC_MOVE);
+            publish(fileName);
 
-            // Copy file to the target location (Replacing existing file with the same name)
-            Path targetLocation = this.fileStorageLocation.resolve(uniqueFileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            log.info("File stored successfully: {} ({} bytes)", fileName, upload.size());
+            event.commit(fileName, upload.size());
+            return new StoredFile(fileName, upload.sha256(), upload.size(), false);
+        } finally {
+            Files.deleteIfExists(upload.path());
+        }
+    }
 
-            log.info("File stored successfully: {}", uniqueFileName);
-            return uniqueFileName;
+    private TempUpload streamToTemp(InputStream in, long maxBytes) throws IOException {
+        MessageDigest digest = newSha256();
+        Path temp = Files.createTempFile(this.fileStorageLocation, "upload-", ".tmp");
+        try (InputStream digesting = new DigestInputStream(in, digest);
+             OutputStream out = Files.newOutputStream(temp)) {
+            byte[] buffer = new byte[64 * 1024];
+            long size = 0;
+            int read;
+            while ((read = digesting.read(buffer)) != -1) {
+                size += read;
+                if (size > maxBytes) {
+                    throw new BadRequestException("File size must be less than " + (maxBytes / (1024 * 1024)) + "MB");
+                }
+                out.write(buffer, 0, read);
+            }
+            return new TempUpload(temp, HexFormat.of().formatHex(digest.digest()), size);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(temp);
+            throw ex;
+        }
+    }
+
+    /**
+     * Refresh the modification time of a re-uploaded file, so the storage reclaimer's grace
+     * period protects it until the product that now uses it is saved
+     */
+    private void touch(String fileName) {
+        try {
+            objectStore.touch(fileName, contentTypeOf(fileName));
         } catch (IOException ex) {
-            throw new FileStorageException("Could not store file " + originalFileName + ". Please try again!", ex);
+            log.warn("Could not refresh modification time of {}", fileName, ex);
+        }
+    }
+
+    private Optional<ObjectStore.StoredObject> findStored(String fileName) {
+        try {
+            return objectStore.stat(fileName);
+        } catch (IOException ex) {
+            log.warn("Could not look up stored file {}", fileName, ex);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Persist a file that was written to the upload directory (e.g. a generated variant) to the
+     * object store; a no-op for local storage
+     */
+    public void publish(String fileName) throws IOException {
+        if (objectStore.isLocal()) {
+            return;
+        }
+        Path filePath = resolveStoredFile(fileName)
+                .orElseThrow(() -> new IOException("Invalid file name " + fileName));
+        StorageIoEvent event = StorageIoEvent.begin("publish", true);
+        objectStore.put(fileName, filePath, contentTypeOf(fileName));
+        event.commit(fileName, Files.size(filePath));
+    }
+
+    /**
+     * Whether a file is stored, without downloading it
+     */
+    public boolean exists(String fileName) {
+        Optional<Path> filePath = resolveStoredFile(fileName);
+        if (filePath.isEmpty()) {
+            return false;
+        }
+        return Files.isRegularFile(filePath.get()) || (!objectStore.isLocal() && findStored(fileName).isPresent());
+    }
+
+    /**
+     * Local path of a stored file, downloading it into the upload directory (the read-through
+     * cache of remote storage) when it is not there yet
+     */
+    public Optional<Path> localCopy(String fileName) {
+        Optional<Path> resolved = resolveStoredFile(fileName);
+        if (resolved.isEmpty() || Files.isRegularFile(resolved.get()) || objectStore.isLocal()) {
+            return resolved.filter(Files::isRegularFile);
+        }
+        Path filePath = resolved.get();
+        try {
+            Path temp = Files.createTempFile(this.fileStorageLocation, "fetch-", ".tmp");
+            try {
+                StorageIoEvent event = StorageIoEvent.begin("fetch", true);
+                if (!objectStore.fetch(fileName, temp)) {
+                    return Optional.empty();
+                }
+                event.commit(fileName, Files.size(temp));
+                Files.move(temp, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                return Optional.of(filePath);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException ex) {
+            log.warn("Could not fetch {} from object storage", fileName, ex);
+            return Optional.empty();
         }
     }
 
+    /**
+     * URL the client can download the file from without going through this application, if the
+     * storage backend offers one (presigned S3 URLs)
+     */
+    public Optional<ObjectStore.DirectDownload> directDownload(String fileName) {
+        return resolveStoredFile(fileName).flatMap(path -> objectStore.directDownload(fileName));
+    }
+
+    /**
+     * Visit every stored file, plus (for remote storage) leftover temp files in the local cache
+     */
+    public void listStoredFiles(Consumer<ObjectStore.StoredObject> visitor) throws IOException {
+        objectStore.list(visitor);
+        if (objectStore.isLocal()) {
+            return;
+        }
+        try (DirectoryStream<Path> temps = Files.newDirectoryStream(this.fileStorageLocation, "*.tmp")) {
+            for (Path temp : temps) {
+                BasicFileAttributes attributes = Files.readAttributes(temp, BasicFileAttributes.class);
+                visitor.accept(new ObjectStore.StoredObject(temp.getFileName().toString(), attributes.size(),
+                        attributes.lastModifiedTime().toInstant()));
+            }
+        }
+    }
+
+    /**
+     * Current modification time of a stored file (or local temp file), empty if it is gone
+     */
+    public Optional<Instant> lastModified(String fileName) {
+        if (objectStore.isLocal() || !fileName.endsWith(".tmp")) {
+            return findStored(fileName).map(ObjectStore.StoredObject::lastModified);
+        }
+        try {
+            Optional<Path> temp = resolveStoredFile(fileName).filter(Files::isRegularFile);
+            return temp.isPresent() ? Optional.of(Files.getLastModifiedTime(temp.get()).toInstant()) : Optional.empty();
+        } catch (IOException ex) {
+            log.warn("Could not look up temp file {}", fileName, ex);
+            return Optional.empty();
+        }
+    }
+
+    private static String normalizeExtension(String fileExtension) {
+        String extension = fileExtension == null ? "" : fileExtension.toLowerCase(Locale.ROOT);
+        return SAFE_EXTENSION.matcher(extension).matches() ? extension : "";
+    }
+
     /**
      * Delete a file from storage
+     * Returns whether a file was actually removed
      */
-    public void deleteFile(String fileName) {
+    public boolean deleteFile(String fileName) {
+        StorageIoEvent event = StorageIoEvent.begin("delete", !objectStore.isLocal());
         try {
             Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
-            Files.deleteIfExists(filePath);
+            boolean deleted = Files.deleteIfExists(filePath);
+            if (!objectStore.isLocal() && !fileName.endsWith(".tmp")) {
+                objectStore.delete(fileName);
+                deleted = true;
+            }
+            metadataCache.invalidate(fileName);
+            hotImageCache.invalidate(fileName);
             log.info("File deleted successfully: {}", fileName);
+            event.commit(fileName, 0);
+            return deleted;
         } catch (IOException ex) {
             log.error("Could not delete file: {}", fileName, ex);
+            return false;
+        }
+    }
+
+    /**
+     * Resolve a stored file by name, refusing names that escape the storage directory
+     */
+    public Optional<Path> resolveStoredFile(String fileName) {
+        Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
+        if (!filePath.startsWith(this.fileStorageLocation) || filePath.equals(this.fileStorageLocation)) {
+            return Optional.empty();
+        }
+        return Optional.of(filePath);
+    }
+
+    /**
+     * Content type, length and content-hash ETag of a stored file
+     * Cached in memory and revalidated against the file's size and modification time with one stat,
+     * so steady-state requests neither probe the content type nor re-hash the file.
+     */
+    public Optional<FileMetadata> getMetadata(String fileName) {
+        Optional<Path> resolved = localCopy(fileName);
+        if (resolved.isEmpty()) {
+            return Optional.empty();
+        }
+        Path filePath = resolved.get();
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+        } catch (IOException ex) {
+            metadataCache.invalidate(fileName);
+            return Optional.empty();
+        }
+        if (!attributes.isRegularFile()) {
+            return Optional.empty();
+        }
+
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        FileMetadata cached = metadataCache.getIfPresent(fileName);
+        if (cached != null && cached.length() == attributes.size() && cached.lastModified() == lastModified) {
+            return Optional.of(cached);
+        }
+
+        try {
+            FileMetadata metadata = new FileMetadata(filePath, probeContentType(filePath), attributes.size(),
+                    lastModified, "\"" + sha256(filePath) + "\"");
+            metadataCache.put(fileName, metadata);
+            return Optional.of(metadata);
+        } catch (IOException ex) {
+            log.warn("Could not read file metadata for: {}", fileName, ex);
+            return Optional.empty();
         }
     }
 
@@ -81,5 +392,51 @@ public class FileStorageService {
     public Path getFileStorageLocation() {
         return fileStorageLocation;
     }
+
+    private String probeContentType(Path filePath) {
+        try {
+            String contentType = Files.probeContentType(filePath);
+            if (contentType != null) {
+                return contentType;
+            }
+        } catch (IOException ex) {
+            log.warn("Could not determine file type for: {}", filePath.getFileName());
+        }
+        return contentTypeOf(filePath.getFileName().toString());
+    }
+
+    private static String contentTypeOf(String fileName) {
+        return MediaTypeFactory.getMediaType(fileName)
+                .map(MediaType::toString)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+    }
+
+    private static String sha256(Path filePath) throws IOException {
+        MessageDigest digest = newSha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(filePath), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    /**
+     * A file written to storage, with its content digest and size in bytes
+     */
+    public record StoredFile(String fileName, String sha256, long size, boolean deduplicated) {}
+
+    private record TempUpload(Path path, String sha256, long size) {}
+
+    /**
+     * Cached serving metadata for a stored file; etag is the quoted SHA-256 of its content
+     */
+    public record FileMetadata(Path path, String contentType, long length, long lastModified, String etag) {}
 }
 
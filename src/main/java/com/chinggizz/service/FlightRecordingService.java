@@ -0,0 +1,140 @@
+package com.chinggizz.service;
+
+import com.chinggizz.dto.FlightRecordingDTO;
+import com.chinggizz.exception.BadRequestException;
+import com.chinggizz.timing.CatalogLoadEvent;
+import com.chinggizz.timing.OrderStageEvent;
+import com.chinggizz.timing.StorageIoEvent;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Starts and stops a JDK Flight Recorder recording from inside the application
+ * The recording uses one of the JDK's built-in settings ("default" or "profile") plus the app's own
+ * order, catalog and storage events, and is written to a new file in app.jfr.dump-dir when stopped
+ * (JFR itself writes it if the JVM exits first), so production-like load can be profiled without
+ * attaching jcmd or JMC to the process.
+ */
+@Service
+@Slf4j
+public class FlightRecordingService {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final boolean recordOnStartup;
+    private final String settings;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+    private final Path dumpDir;
+
+    private Recording recording;
+    private LocalDateTime startedAt;
+    private Path lastFile;
+
+    public FlightRecordingService(@Value("${app.jfr.record-on-startup:false}") boolean recordOnStartup,
+                                  @Value("${app.jfr.settings:profile}") String settings,
+                                  @Value("${app.jfr.max-age:PT30M}") Duration maxAge,
+                                  @Value("${app.jfr.max-size:268435456}") long maxSizeBytes,
+                                  @Value("${app.jfr.dump-dir:recordings}") String dumpDir) {
+        this.recordOnStartup = recordOnStartup;
+        this.settings = settings;
+        this.maxAge = maxAge;
+        this.maxSizeBytes = maxSizeBytes;
+        this.dumpDir = Paths.get(dumpDir).toAbsolutePath().normalize();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnStartup() {
+        if (recordOnStartup) {
+            start();
+        }
+    }
+
+    public synchronized FlightRecordingDTO start() {
+        if (recording != null) {
+            throw new BadRequestException("A flight recording is already running");
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new BadRequestException("Unknown flight recorder settings: " + settings);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Path file = dumpDir.resolve("chinggizz-" + now.format(FILE_TIMESTAMP) + ".jfr");
+        Recording started = new Recording(configuration);
+        try {
+            Files.createDirectories(dumpDir);
+            started.setDestination(file);
+        } catch (IOException e) {
+            started.close();
+            throw new IllegalStateException("Could not prepare flight recording file " + file, e);
+        }
+        started.setName("chinggizz");
+        started.setToDisk(true);
+        started.setDumpOnExit(true);
+        started.setMaxAge(maxAge);
+        started.setMaxSize(maxSizeBytes);
+        started.enable(OrderStageEvent.class);
+        started.enable(CatalogLoadEvent.class);
+        started.enable(StorageIoEvent.class);
+        started.start();
+
+        recording = started;
+        startedAt = now;
+        log.info("Flight recording started with '{}' settings, writing to {}", settings, file);
+        return status();
+    }
+
+    /**
+     * Stop the running recording; stopping writes it to its file in the dump directory
+     */
+    public synchronized FlightRecordingDTO stop() {
+        if (recording == null) {
+            throw new BadRequestException("No flight recording is running");
+        }
+        try {
+            recording.stop();
+            lastFile = recording.getDestination();
+            log.info("Flight recording written to {}", lastFile);
+        } finally {
+            recording.close();
+            recording = null;
+            startedAt = null;
+        }
+        return status();
+    }
+
+    public synchronized FlightRecordingDTO status() {
+        Long fileBytes = null;
+        if (lastFile != null) {
+            try {
+                fileBytes = Files.size(lastFile);
+            } catch (IOException e) {
+                // Dump was moved or deleted since; report the name only
+            }
+        }
+        return FlightRecordingDTO.builder()
+                .recording(recording != null)
+                .settings(settings)
+                .startedAt(startedAt)
+                .file(lastFile != null ? lastFile.toString() : null)
+                .fileBytes(fileBytes)
+                .build();
+    }
+}
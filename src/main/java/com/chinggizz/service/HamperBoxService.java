@@ -4,12 +4,14 @@ import com.chinggizz.dto.HamperBoxDTO;
 import com.chinggizz.entity.HamperBox;
 import com.chinggizz.exception.ResourceNotFoundException;
 import com.chinggizz.repository.HamperBoxRepository;
+import com.chinggizz.timing.CatalogLoadEvent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,13 +21,17 @@ import java.util.stream.Collectors;
 public class HamperBoxService {
     
     private final HamperBoxRepository hamperBoxRepository;
+    private final CatalogVersionService catalogVersionService;
     
     @Cacheable(value = "hamperBoxes", unless = "#result.isEmpty()")
     public List<HamperBoxDTO> getAllActiveHamperBoxes() {
-        return hamperBoxRepository.findByActiveTrueOrderByPriceAsc()
+        CatalogLoadEvent load = CatalogLoadEvent.begin("hamperBoxes", null);
+        List<HamperBoxDTO> loaded = hamperBoxRepository.findByActiveTrueOrderByPriceAsc()
                 .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        load.commit(loaded.size(), 0);
+        return loaded;
     }
 
     public HamperBoxDTO getHamperBoxById(Long id) {
@@ -34,8 +40,18 @@ public class HamperBoxService {
         return convertToDTO(hamperBox);
     }
 
+    /**
+     * Active and deactivated hamper boxes changed after the given time, for catalog delta sync
+     */
+    public List<HamperBoxDTO> getHamperBoxesUpdatedAfter(LocalDateTime since) {
+        return hamperBoxRepository.findByUpdatedAtAfter(since)
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
     @Transactional
-    @CacheEvict(value = "hamperBoxes", allEntries = true)
+    @CacheEvict(value = {"hamperBoxes", "bootstrap"}, allEntries = true)
     public HamperBoxDTO createHamperBox(HamperBoxDTO hamperBoxDTO) {
         HamperBox hamperBox = HamperBox.builder()
                 .name(hamperBoxDTO.getName())
@@ -48,11 +64,12 @@ public class HamperBoxService {
                 .build();
         
         HamperBox saved = hamperBoxRepository.save(hamperBox);
+        catalogVersionService.bumpAfterCommit(saved);
         return convertToDTO(saved);
     }
     
     @Transactional
-    @CacheEvict(value = "hamperBoxes", allEntries = true)
+    @CacheEvict(value = {"hamperBoxes", "bootstrap"}, allEntries = true)
     public HamperBoxDTO updateHamperBox(Long id, HamperBoxDTO hamperBoxDTO) {
         HamperBox hamperBox = hamperBoxRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("HamperBox", "id", id));
@@ -66,16 +83,18 @@ public class HamperBoxService {
         hamperBox.setActive(hamperBoxDTO.getActive());
 
         HamperBox updated = hamperBoxRepository.save(hamperBox);
+        catalogVersionService.bumpAfterCommit(updated);
         return convertToDTO(updated);
     }
 
     @Transactional
-    @CacheEvict(value = "hamperBoxes", allEntries = true)
+    @CacheEvict(value = {"hamperBoxes", "bootstrap"}, allEntries = true)
     public void deleteHamperBox(Long id) {
         HamperBox hamperBox = hamperBoxRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("HamperBox", "id", id));
         hamperBox.setActive(false);
         hamperBoxRepository.save(hamperBox);
+        catalogVersionService.bumpAfterCommit(hamperBox);
     }
     
     private HamperBoxDTO convertToDTO(HamperBox hamperBox) {
@@ -0,0 +1,108 @@
+package com.chinggizz.service;
+
+import com.chinggizz.service.FileStorageService.FileMetadata;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Off-heap cache for the most frequently served image files
+ * Contents live in direct ByteBuffers, bounded by total bytes rather than entry count, so the
+ * cache never adds to heap pressure. Caffeine's W-TinyLFU decides which files stay; a file is only
+ * loaded once it has been requested twice, so one-off images never displace the hero images.
+ * Hits are served without touching the (network-backed) upload disk at all.
+ */
+@Component
+@Slf4j
+public class HotImageCache {
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final Cache<String, Entry> entries;
+
+    // Doorkeeper: remembers recent misses so only repeat requests are loaded off-heap
+    private final Cache<String, Boolean> seen = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    public HotImageCache(@Value("${app.image-cache.max-bytes:67108864}") long maxBytes,
+                         @Value("${app.image-cache.max-entry-bytes:2097152}") long maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String fileName, Entry entry) -> entry.content().capacity())
+                .recordStats()
+                .build();
+        log.info("Hot image cache enabled with {} MB of direct memory", maxBytes / (1024 * 1024));
+    }
+
+    public Optional<Entry> get(String fileName) {
+        return Optional.ofNullable(entries.getIfPresent(fileName));
+    }
+
+    /**
+     * Called after a miss; loads the file off-heap on its second request if it is small enough
+     */
+    public Optional<Entry> admit(String fileName, FileMetadata metadata) {
+        if (maxBytes <= 0 || metadata.length() == 0 || metadata.length() > maxEntryBytes) {
+            return Optional.empty();
+        }
+        if (seen.asMap().putIfAbsent(fileName, Boolean.TRUE) == null) {
+            return Optional.empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(metadata.path())) {
+            ByteBuffer content = ByteBuffer.allocateDirect((int) metadata.length());
+            while (content.hasRemaining() && channel.read(content) >= 0) {
+                // keep reading until the buffer is full
+            }
+            content.flip();
+            Entry entry = new Entry(metadata, content.asReadOnlyBuffer());
+            entries.put(fileName, entry);
+            seen.invalidate(fileName);
+            return Optional.of(entry);
+        } catch (IOException e) {
+            log.warn("Could not load {} into the hot image cache", fileName, e);
+            return Optional.empty();
+        }
+    }
+
+    public void invalidate(String fileName) {
+        entries.invalidate(fileName);
+        seen.invalidate(fileName);
+    }
+
+    public CacheStats stats() {
+        return entries.stats();
+    }
+
+    public long estimatedSize() {
+        return entries.estimatedSize();
+    }
+
+    public long weightedBytes() {
+        return entries.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Cached file: serving metadata plus a read-only view of its bytes (duplicate before use)
+     */
+    public record Entry(FileMetadata metadata, ByteBuffer content) {}
+}
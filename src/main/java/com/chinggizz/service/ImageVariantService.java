@@ -0,0 +1,201 @@
+package com.chinggizz.service;
+
+import com.chinggizz.util.ImageTranscoder;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resized image variants for responsive srcset
+ * Variants are written next to the original as {name}-w{width}.{jpg|png} when an image is uploaded,
+ * and generated on first request for older images on a small bounded pool. Once written they are
+ * ordinary stored files, so they get the same immutable caching as the original.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageVariantService {
+
+    public static final List<Integer> WIDTHS = List.of(200, 480, 1080);
+
+    private static final int WORKERS = 2;
+    private static final int QUEUE_CAPACITY = 32;
+    private static final long WAIT_SECONDS = 10;
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private final FileStorageService fileStorageService;
+
+    // Decoded images take 4 bytes per pixel, so this bounds the heap one decode can claim
+    @Value("${app.upload.max-image-pixels:16000000}")
+    private long maxImagePixels;
+
+    // One generation per variant, however many requests ask for it at once
+    private final Map<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger workerCount = new AtomicInteger();
+    private final ThreadPoolExecutor workers = new ThreadPoolExecutor(WORKERS, WORKERS, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                Thread thread = new Thread(runnable, "image-resize-" + workerCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * Write every variant of a freshly uploaded image, decoding it only once
+     * Returns width -> variant file name; empty when ImageIO cannot decode the upload
+     */
+    public Map<Integer, String> generateVariants(String fileName) {
+        Map<Integer, String> variants = new TreeMap<>();
+        Optional<Path> original = fileStorageService.localCopy(fileName);
+        if (original.isEmpty()) {
+            return variants;
+        }
+        // A deduplicated upload already has its variants
+        List<String> names = WIDTHS.stream().map(width -> variantName(fileName, width)).toList();
+        if (names.stream().allMatch(fileStorageService::exists)) {
+            for (int i = 0; i < WIDTHS.size(); i++) {
+                variants.put(WIDTHS.get(i), names.get(i));
+            }
+            return variants;
+        }
+        try {
+            BufferedImage image = ImageTranscoder.read(original.get(), maxImagePixels);
+            if (image == null) {
+                log.info("No image decoder for {}, skipping variants", fileName);
+                return variants;
+            }
+            for (int width : WIDTHS) {
+                String variant = variantName(fileName, width);
+                write(image, width, variant);
+                variants.put(width, variant);
+            }
+        } catch (IOException e) {
+            log.error("Failed to generate variants for {}", fileName, e);
+        }
+        return variants;
+    }
+
+    /**
+     * Variant file for the smallest configured width that covers the requested one
+     * Empty means "serve the original": the image cannot be decoded, the pool is saturated,
+     * or generation took too long.
+     */
+    public Optional<String> resolveVariant(String fileName, int requestedWidth) {
+        int width = coveringWidth(requestedWidth);
+        String variant = variantName(fileName, width);
+        if (fileStorageService.exists(variant)) {
+            return Optional.of(variant);
+        }
+        if (!fileStorageService.exists(fileName)) {
+            return Optional.empty();
+        }
+
+        CompletableFuture<Boolean> generation;
+        try {
+            generation = inFlight.computeIfAbsent(variant, key -> CompletableFuture.supplyAsync(
+                    () -> generateOnDemand(fileName, width, variant), workers));
+        } catch (RejectedExecutionException e) {
+            log.warn("Image resize queue full, serving original for {}", fileName);
+            return Optional.empty();
+        }
+        // Attached outside computeIfAbsent: a generation that has already finished runs this right
+        // away, and removing from the map inside its own mapping function fails or does nothing
+        generation.whenComplete((result, error) -> inFlight.remove(variant, generation));
+
+        try {
+            return generation.get(WAIT_SECONDS, TimeUnit.SECONDS) ? Optional.of(variant) : Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Could not resize {} to {}px in time, serving original", fileName, width);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Name of the variant that would serve a request for the given width
+     */
+    public static String variantFor(String fileName, int requestedWidth) {
+        return variantName(fileName, coveringWidth(requestedWidth));
+    }
+
+    public static String variantName(String fileName, int width) {
+        int dot = fileName.lastIndexOf('.');
+        String baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        return baseName + "-w" + width + (isPng(fileName) ? ".png" : ".jpg");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private boolean generateOnDemand(String fileName, int width, String variant) {
+        try {
+            Optional<Path> original = fileStorageService.localCopy(fileName);
+            BufferedImage image = original.isPresent() ? ImageTranscoder.read(original.get(), maxImagePixels) : null;
+            if (image == null) {
+                return false;
+            }
+            write(image, width, variant);
+            return true;
+        } catch (IOException e) {
+            log.error("Failed to resize {} to {}px", fileName, width, e);
+            return false;
+        }
+    }
+
+    /**
+     * PNG sources keep transparency as PNG; everything else becomes JPEG
+     * Written to a temporary name and moved into place so readers never see a partial file
+     */
+    private void write(BufferedImage image, int width, String variant) throws IOException {
+        Path target = fileStorageService.resolveStoredFile(variant)
+                .orElseThrow(() -> new IOException("Invalid variant name " + variant));
+        Path temp = target.resolveSibling(variant + ".tmp");
+        BufferedImage scaled = ImageTranscoder.scaleToWidth(image, width);
+        try {
+            if (isPng(variant)) {
+                ImageTranscoder.writePng(scaled, temp);
+            } else {
+                ImageTranscoder.writeJpeg(scaled, temp, JPEG_QUALITY);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            fileStorageService.publish(variant);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static int coveringWidth(int requestedWidth) {
+        return WIDTHS.stream()
+                .filter(candidate -> candidate >= requestedWidth)
+                .findFirst()
+                .orElse(WIDTHS.get(WIDTHS.size() - 1));
+    }
+
+    private static boolean isPng(String fileName) {
+        return fileName.toLowerCase().endsWith(".png");
+    }
+}
@@ -0,0 +1,84 @@
+package com.chinggizz.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Exponential backoff after repeated failed logins, tracked separately per username and per client IP
+ * The first few failures are free; after that each failure doubles the wait before the next attempt
+ * is even looked at, up to a cap. A successful login clears both counters.
+ */
+@Component
+public class LoginAttemptTracker {
+
+    private final int freeAttempts;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+
+    // Bounded, and forgotten once a key has had no failures for the reset window
+    private final Cache<String, Failures> failures;
+
+    private record Failures(int count, long blockedUntilMillis) {}
+
+    public LoginAttemptTracker(@Value("${app.login.free-attempts:3}") int freeAttempts,
+                               @Value("${app.login.base-backoff:PT1S}") Duration baseBackoff,
+                               @Value("${app.login.max-backoff:PT5M}") Duration maxBackoff,
+                               @Value("${app.login.max-tracked-keys:10000}") long maxTrackedKeys,
+                               @Value("${app.login.reset-after:PT15M}") Duration resetAfter) {
+        this.freeAttempts = freeAttempts;
+        this.baseBackoffMillis = baseBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+        this.failures = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterWrite(resetAfter)
+                .build();
+    }
+
+    /**
+     * Seconds the caller must still wait before trying again, or 0 if the attempt may proceed
+     */
+    public long retryAfterSeconds(String username, String clientIp) {
+        long now = System.currentTimeMillis();
+        long blockedUntil = Math.max(blockedUntil(userKey(username)), blockedUntil(ipKey(clientIp)));
+        return blockedUntil > now ? Math.max(1, (blockedUntil - now + 999) / 1000) : 0;
+    }
+
+    public void recordFailure(String username, String clientIp) {
+        recordFailure(userKey(username));
+        recordFailure(ipKey(clientIp));
+    }
+
+    public void recordSuccess(String username, String clientIp) {
+        failures.invalidate(userKey(username));
+        failures.invalidate(ipKey(clientIp));
+    }
+
+    private void recordFailure(String key) {
+        failures.asMap().compute(key, (k, previous) -> {
+            int count = previous == null ? 1 : previous.count() + 1;
+            int excess = count - freeAttempts;
+            if (excess <= 0) {
+                return new Failures(count, 0);
+            }
+            long backoff = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(excess - 1, 20));
+            return new Failures(count, System.currentTimeMillis() + backoff);
+        });
+    }
+
+    private long blockedUntil(String key) {
+        Failures entry = failures.getIfPresent(key);
+        return entry == null ? 0 : entry.blockedUntilMillis();
+    }
+
+    private static String userKey(String username) {
+        return "user:" + username.toLowerCase();
+    }
+
+    private static String ipKey(String clientIp) {
+        return "ip:" + clientIp;
+    }
+}
@@ -0,0 +1,165 @@
+package com.chinggizz.service;
+
+import com.chinggizz.exception.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Adaptive concurrency limit in front of order creation
+ * The database pool is tiny (3 connections), so during a spike checkout threads would otherwise
+ * queue inside Hikari for up to its connection timeout. This caps concurrent order creations with
+ * an AIMD limit: each call slower than the latency target, or failing for lack of a connection,
+ * shrinks the limit multiplicatively; fast calls while the limit is actually in use grow it by
+ * 1/limit. A few callers may wait briefly for a slot; everyone else is rejected at once with 503.
+ */
+@Component
+@Slf4j
+public class OrderCreationLimiter {
+
+    private static final double LATENCY_BACKOFF = 0.9;
+    private static final double FAILURE_BACKOFF = 0.5;
+
+    private final double minLimit;
+    private final double maxLimit;
+    private final long latencyTargetNanos;
+    private final int queueSize;
+    private final long maxWaitNanos;
+    private final long retryAfterSeconds;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int waiting;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong overloaded = new AtomicLong();
+
+    public OrderCreationLimiter(@Value("${app.order-limiter.initial-limit:3}") int initialLimit,
+                                @Value("${app.order-limiter.min-limit:1}") int minLimit,
+                                @Value("${app.order-limiter.max-limit:6}") int maxLimit,
+                                @Value("${app.order-limiter.latency-target:PT1S}") Duration latencyTarget,
+                                @Value("${app.order-limiter.queue-size:4}") int queueSize,
+                                @Value("${app.order-limiter.max-wait:PT0.5S}") Duration maxWait,
+                                @Value("${app.order-limiter.retry-after:PT2S}") Duration retryAfter) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.latencyTargetNanos = latencyTarget.toNanos();
+        this.queueSize = queueSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+    }
+
+    /**
+     * Run an order creation within the limit, or throw ServiceUnavailableException if there is no room
+     */
+    public <T> T call(Supplier<T> orderCreation) {
+        int inFlightAtStart = acquire();
+        long start = System.nanoTime();
+        boolean overload = false;
+        try {
+            return orderCreation.get();
+        } catch (CannotCreateTransactionException | DataAccessResourceFailureException | TransientDataAccessException e) {
+            overload = true;
+            throw e;
+        } finally {
+            release(inFlightAtStart, System.nanoTime() - start, overload);
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            metrics.put("limit", Math.round(limit * 100) / 100.0);
+            metrics.put("inFlight", inFlight);
+            metrics.put("waiting", waiting);
+        } finally {
+            lock.unlock();
+        }
+        metrics.put("accepted", accepted.get());
+        metrics.put("rejected", rejected.get());
+        metrics.put("overloaded", overloaded.get());
+        return metrics;
+    }
+
+    private int acquire() {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                return admit();
+            }
+            if (waiting >= queueSize) {
+                throw reject();
+            }
+            waiting++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        throw reject();
+                    }
+                    remaining = slotFreed.awaitNanos(remaining);
+                }
+                return admit();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw reject();
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int admit() {
+        accepted.incrementAndGet();
+        return ++inFlight;
+    }
+
+    private ServiceUnavailableException reject() {
+        rejected.incrementAndGet();
+        return new ServiceUnavailableException("We're receiving a lot of orders right now. Please try again in a moment.",
+                retryAfterSeconds);
+    }
+
+    private void release(int inFlightAtStart, long latencyNanos, boolean overload) {
+        lock.lock();
+        try {
+            inFlight--;
+            double previous = limit;
+            if (overload) {
+                overloaded.incrementAndGet();
+                limit = Math.max(minLimit, limit * FAILURE_BACKOFF);
+            } else if (latencyNanos > latencyTargetNanos) {
+                limit = Math.max(minLimit, limit * LATENCY_BACKOFF);
+            } else if (inFlightAtStart * 2 >= limit) {
+                // Only grow while the current limit is actually being used
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            if ((int) previous != (int) limit) {
+                log.info("Order creation concurrency limit {} -> {} (last call {} ms)",
+                        (int) previous, (int) limit, TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+            }
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
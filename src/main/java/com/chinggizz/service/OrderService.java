@@ -2,7 +2,11 @@ package com.chinggizz.service;
 
 import com.chinggizz.dto.*;
 import com.chinggizz.entity.*;
+import com.chinggizz.dto.BulkOrderStatusResultDTO.Outcome;
+import com.chinggizz.dto.BulkOrderStatusResultDTO.Result;
 import com.chinggizz.enums.OrderStatus;
+import com.chinggizz.event.OrderCreatedEvent;
+import com.chinggizz.event.OrderStatusChangedEvent;
 import com.chinggizz.exception.BadRequestException;
 import com.chinggizz.exception.OutOfStockException;
 import com.chinggizz.exception.PriceMismatchException;
@@ -10,18 +14,28 @@ import com.chinggizz.exception.ResourceNotFoundException;
 import com.chinggizz.repository.HamperBoxRepository;
 import com.chinggizz.repository.OrderRepository;
 import com.chinggizz.repository.ProductRepository;
+import com.chinggizz.timing.OrderStageEvent;
+import com.chinggizz.timing.RequestTimings;
+import com.chinggizz.util.HamperItemsParser;
 import com.chinggizz.util.OrderNumberGenerator;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.chinggizz.util.PhoneNumbers;
+import com.chinggizz.util.TransactionCallbacks;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,8 +48,12 @@ public class OrderService {
     private final ProductRepository productRepository;
     private final HamperBoxRepository hamperBoxRepository;
     private final OrderNumberGenerator orderNumberGenerator;
-    private final ObjectMapper objectMapper;
+    private final HamperItemsParser hamperItemsParser;
     private final WhatsAppService whatsAppService;
+    private final FileStorageService fileStorageService;
+    private final ProductFacetService productFacetService;
+    private final CatalogVersionService catalogVersionService;
+    private final ApplicationEventPublisher eventPublisher;
     
     public List<OrderDTO> getAllOrders() {
         return orderRepository.findAllByOrderByCreatedAtDesc()
@@ -69,22 +87,38 @@ public class OrderService {
      */
     @Transactional(isolation = Isolation.SERIALIZABLE)
     public OrderDTO createOrder(CreateOrderRequest request) {
+        return createOrder(request, List.of());
+    }
+
+    /**
+     * Create order whose hamper screenshots were already stored as uploadedFiles
+     * The files are deleted if the transaction rolls back, and kept once the order has committed
+     */
+    @Transactional(isolation = Isolation.SERIALIZABLE)
+    public OrderDTO createOrder(CreateOrderRequest request, List<String> uploadedFiles) {
+        if (!uploadedFiles.isEmpty()) {
+            List<String> files = List.copyOf(uploadedFiles);
+            TransactionCallbacks.afterRollback(() -> files.forEach(fileStorageService::deleteFile));
+        }
         log.info("Creating order for customer: {}", request.getCustomerName());
+        int itemCount = request.getOrderItems() == null ? 0 : request.getOrderItems().size();
+        int hamperCount = request.getOrderHampers() == null ? 0 : request.getOrderHampers().size();
 
         // Validate request
-        if ((request.getOrderItems() == null || request.getOrderItems().isEmpty()) &&
-            (request.getOrderHampers() == null || request.getOrderHampers().isEmpty())) {
+        if (itemCount == 0 && hamperCount == 0) {
             throw new BadRequestException("Order must contain at least one item or hamper");
         }
 
         // STEP 1: Validate stock availability and prices BEFORE creating order
+        OrderStageEvent validation = OrderStageEvent.begin("validation");
         validateStockAndPrices(request);
+        validation.commit(itemCount + hamperCount, 0);
 
         // STEP 2: Create order
         Order order = Order.builder()
                 .orderNumber(orderNumberGenerator.generate())
                 .customerName(request.getCustomerName())
-                .customerPhone(request.getCustomerPhone())
+                .customerPhone(PhoneNumbers.normalize(request.getCustomerPhone()))
                 .customerEmail(request.getCustomerEmail())
                 .deliveryAddress(request.getDeliveryAddress())
                 .deliveryDate(request.getDeliveryDate())
@@ -104,9 +138,18 @@ public class OrderService {
 
         // STEP 3: Process order items and decrement stock
         if (request.getOrderItems() != null) {
+            OrderStageEvent resolution = OrderStageEvent.begin("product-resolution");
+            List<Product> products = new ArrayList<>(itemCount);
             for (OrderItemRequest itemRequest : request.getOrderItems()) {
-                Product product = productRepository.findById(itemRequest.getProductId())
-                        .orElseThrow(() -> new ResourceNotFoundException("Product", "id", itemRequest.getProductId()));
+                products.add(productRepository.findById(itemRequest.getProductId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Product", "id", itemRequest.getProductId())));
+            }
+            resolution.commit(itemCount, 0);
+
+            OrderStageEvent stockDecrement = OrderStageEvent.begin("stock-decrement");
+            for (int i = 0; i < itemCount; i++) {
+                OrderItemRequest itemRequest = request.getOrderItems().get(i);
+                Product product = products.get(i);
 
                 // Decrement stock atomically
                 decrementProductStock(product, itemRequest.getQuantity());
@@ -136,6 +179,7 @@ public class OrderService {
 
                 log.info("Added item: {} x{} to order", product.getName(), itemRequest.getQuantity());
             }
+            stockDecrement.commit(itemCount, 0);
         }
 
         // STEP 4: Process order hampers
@@ -160,6 +204,7 @@ public class OrderService {
                         .hamperData(hamperRequest.getHamperData())
                         .hamperName(hamperRequest.getHamperName())
                         .screenshot(hamperRequest.getScreenshot())
+                        .screenshotSha256(hamperRequest.getScreenshotSha256())
                         .build();
 
                 order.getOrderHampers().add(orderHamper);
@@ -170,19 +215,24 @@ public class OrderService {
         }
 
         order.setTotalAmount(totalAmount);
+        OrderStageEvent persist = OrderStageEvent.begin("persist");
         Order savedOrder = orderRepository.save(order);
+        persist.commit(itemCount + hamperCount, 0);
 
         log.info("Order created successfully: {} with total amount: {}", savedOrder.getOrderNumber(), totalAmount);
+        eventPublisher.publishEvent(toCreatedEvent(savedOrder));
 
         // Send WhatsApp notification to business number
+        OrderStageEvent notification = OrderStageEvent.begin("notification");
         OrderDTO orderDTO = convertToDTO(savedOrder);
         try {
-            whatsAppService.sendOrderNotification(orderDTO);
+            RequestTimings.time("whatsapp", () -> whatsAppService.sendOrderNotification(orderDTO));
             log.info("WhatsApp notification sent for order: {}", savedOrder.getOrderNumber());
         } catch (Exception e) {
             log.error("Failed to send WhatsApp notification for order: {}", savedOrder.getOrderNumber(), e);
             // Don't fail the order creation if WhatsApp notification fails
         }
+        notification.commit(itemCount + hamperCount, 0);
 
         return orderDTO;
     }
@@ -193,9 +243,18 @@ public class OrderService {
      */
     private void validateStockAndPrices(CreateOrderRequest request) {
         if (request.getOrderItems() != null) {
+            // One query for the whole cart; the products stay in the persistence context for STEP 3
+            Map<Long, Product> products = productRepository.findAllById(request.getOrderItems().stream()
+                            .map(OrderItemRequest::getProductId)
+                            .collect(Collectors.toSet()))
+                    .stream()
+                    .collect(Collectors.toMap(Product::getId, product -> product));
+
             for (OrderItemRequest itemRequest : request.getOrderItems()) {
-                Product product = productRepository.findById(itemRequest.getProductId())
-                        .orElseThrow(() -> new ResourceNotFoundException("Product", "id", itemRequest.getProductId()));
+                Product product = products.get(itemRequest.getProductId());
+                if (product == null) {
+                    throw new ResourceNotFoundException("Product", "id", itemRequest.getProductId());
+                }
 
                 // Check stock availability
                 if (product.getStockQuantity() != null && product.getStockQuantity() < itemRequest.getQuantity()) {
@@ -247,6 +306,8 @@ public class OrderService {
 
         product.setStockQuantity(newStock);
         productRepository.save(product);
+        productFacetService.indexAfterCommit(product);
+        catalogVersionService.bumpAfterCommit(product);
 
         log.info("Decremented stock for product {}: {} -> {}", product.getName(), currentStock, newStock);
     }
@@ -255,36 +316,161 @@ public class OrderService {
     public OrderDTO updateOrderStatus(Long id, OrderStatus status) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", id));
+        OrderStatus previousStatus = order.getStatus();
+        if (previousStatus != status && !previousStatus.canTransitionTo(status)) {
+            throw new BadRequestException("Cannot change order status from " + previousStatus + " to " + status);
+        }
         order.setStatus(status);
         Order updated = orderRepository.save(order);
+
+        if (previousStatus != status) {
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(List.of(new OrderStatusChangedEvent.Change(
+                    updated.getId(), updated.getOrderNumber(), updated.getCustomerPhone(), previousStatus, status,
+                    updated.getCreatedAt(), updated.getTotalAmount(), LocalDateTime.now()))));
+        }
         return convertToDTO(updated);
     }
 
-    private BigDecimal calculateHamperItemsTotal(String hamperData) {
-        try {
-            JsonNode hamperNode = objectMapper.readTree(hamperData);
-            JsonNode itemsNode = hamperNode.get("items");
+    /**
+     * Move many orders to one status with one guarded UPDATE per source status
+     * Illegal transitions are reported, not applied, and a single change event covers the batch
+     */
+    @Transactional
+    public BulkOrderStatusResultDTO bulkUpdateOrderStatus(BulkOrderStatusRequest request) {
+        OrderStatus target = request.getStatus();
+        List<Long> orderIds = request.getOrderIds() != null ? request.getOrderIds() : List.of();
+        List<String> orderNumbers = request.getOrderNumbers() != null ? request.getOrderNumbers() : List.of();
+        if (orderIds.isEmpty() && orderNumbers.isEmpty()) {
+            throw new BadRequestException("At least one order id or order number is required");
+        }
 
-            if (itemsNode == null || !itemsNode.isArray()) {
-                return BigDecimal.ZERO;
-            }
+        // Resolve references to (id, number, status) without loading order graphs
+        Map<Long, OrderRepository.StatusView> found = new LinkedHashMap<>();
+        if (!orderIds.isEmpty()) {
+            orderRepository.findByIdIn(orderIds).forEach(view -> found.put(view.getId(), view));
+        }
+        if (!orderNumbers.isEmpty()) {
+            orderRepository.findByOrderNumberIn(orderNumbers).forEach(view -> found.put(view.getId(), view));
+        }
 
-            BigDecimal total = BigDecimal.ZERO;
-            for (JsonNode itemNode : itemsNode) {
-                Long productId = itemNode.get("productId").asLong();
-                int quantity = itemNode.get("quantity").asInt();
+        List<Outcome> outcomes = new ArrayList<>();
+        orderIds.stream()
+                .filter(id -> !found.containsKey(id))
+                .distinct()
+                .forEach(id -> outcomes.add(Outcome.builder().orderId(id).result(Result.NOT_FOUND).build()));
+        List<String> foundNumbers = found.values().stream().map(OrderRepository.StatusView::getOrderNumber).toList();
+        orderNumbers.stream()
+                .filter(number -> !foundNumbers.contains(number))
+                .distinct()
+                .forEach(number -> outcomes.add(Outcome.builder().orderNumber(number).result(Result.NOT_FOUND).build()));
+
+        Map<OrderStatus, List<OrderRepository.StatusView>> bySource = new EnumMap<>(OrderStatus.class);
+        found.values().forEach(view -> bySource.computeIfAbsent(view.getStatus(), s -> new ArrayList<>()).add(view));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderStatusChangedEvent.Change> changes = new ArrayList<>();
+        bySource.forEach((source, views) -> {
+            if (source == target) {
+                views.forEach(view -> outcomes.add(outcome(view, Result.UNCHANGED)));
+                return;
+            }
+            if (!source.canTransitionTo(target)) {
+                views.forEach(view -> outcomes.add(outcome(view, Result.ILLEGAL_TRANSITION)));
+                return;
+            }
 
-                Product product = productRepository.findById(productId)
-                        .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+            // Lock the rows still in the source status, so exactly those are moved by the UPDATE
+            List<Long> ids = views.stream().map(OrderRepository.StatusView::getId).toList();
+            Set<Long> locked = new HashSet<>(orderRepository.lockIdsInStatus(ids, source.name()));
+            if (!locked.isEmpty()) {
+                orderRepository.updateStatus(locked, source.name(), target.name(), now);
+            }
 
-                BigDecimal itemPrice = product.getPrice().multiply(BigDecimal.valueOf(quantity));
-                total = total.add(itemPrice);
+            // Rows that left the source status in the meantime were moved by someone else: re-read
+            // them and report them without change events
+            Map<Long, OrderRepository.StatusView> current = new LinkedHashMap<>();
+            if (locked.size() != ids.size()) {
+                orderRepository.findByIdIn(ids.stream().filter(id -> !locked.contains(id)).toList())
+                        .forEach(view -> current.put(view.getId(), view));
+            }
+            for (OrderRepository.StatusView view : views) {
+                if (locked.contains(view.getId())) {
+                    outcomes.add(outcome(view, Result.UPDATED));
+                    changes.add(new OrderStatusChangedEvent.Change(view.getId(), view.getOrderNumber(),
+                            view.getCustomerPhone(), source, target,
+                            view.getCreatedAt(), view.getTotalAmount(), now));
+                } else {
+                    OrderRepository.StatusView latest = current.getOrDefault(view.getId(), view);
+                    outcomes.add(outcome(latest, latest.getStatus() == target ? Result.UNCHANGED : Result.CONFLICT));
+                }
             }
+        });
 
-            return total;
-        } catch (Exception e) {
-            throw new BadRequestException("Invalid hamper data format");
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(changes));
+        }
+        log.info("Bulk status update to {}: {} of {} orders updated", target, changes.size(), outcomes.size());
+
+        return BulkOrderStatusResultDTO.builder()
+                .status(target)
+                .updated(changes.size())
+                .outcomes(outcomes)
+                .build();
+    }
+
+    private OrderCreatedEvent toCreatedEvent(Order order) {
+        List<OrderCreatedEvent.ItemLine> items = order.getOrderItems().stream()
+                .map(item -> new OrderCreatedEvent.ItemLine(item.getProduct().getId(), item.getQuantity(), item.getTotalPrice()))
+                .toList();
+        List<BigDecimal> hamperTotals = order.getOrderHampers().stream()
+                .map(OrderHamper::getTotalPrice)
+                .toList();
+        List<OrderCreatedEvent.ScreenshotFile> screenshots = order.getOrderHampers().stream()
+                .filter(hamper -> hamper.getScreenshotSha256() != null)
+                .map(hamper -> new OrderCreatedEvent.ScreenshotFile(hamper.getId(), hamper.getScreenshot()))
+                .toList();
+        return new OrderCreatedEvent(order.getId(), order.getOrderNumber(), order.getCustomerPhone(), order.getStatus(),
+                order.getCreatedAt(), order.getTotalAmount(), items, hamperTotals, screenshots);
+    }
+
+    private Outcome outcome(OrderRepository.StatusView view, Result result) {
+        return Outcome.builder()
+                .orderId(view.getId())
+                .orderNumber(view.getOrderNumber())
+                .previousStatus(view.getStatus())
+                .result(result)
+                .build();
+    }
+
+    /**
+     * Price hamper contents from current product prices
+     * Only items[].productId and quantity are read; layout data is skipped while streaming
+     */
+    private BigDecimal calculateHamperItemsTotal(String hamperData) {
+        OrderStageEvent pricing = OrderStageEvent.begin("hamper-pricing");
+        HamperItemsParser.HamperItems items = RequestTimings.time("hamper", () -> hamperItemsParser.parse(hamperData));
+        if (items.size() == 0) {
+            pricing.commit(0, hamperData.length());
+            return BigDecimal.ZERO;
+        }
+
+        Map<Long, Long> quantities = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            quantities.merge(items.productId(i), (long) items.quantity(i), Long::sum);
+        }
+        Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, product -> product));
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<Long, Long> entry : quantities.entrySet()) {
+            Product product = products.get(entry.getKey());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product", "id", entry.getKey());
+            }
+            total = total.add(product.getPrice().multiply(BigDecimal.valueOf(entry.getValue())));
         }
+        pricing.commit(items.size(), hamperData.length());
+        return total;
     }
 
     private OrderDTO convertToDTO(Order order) {
@@ -345,6 +531,10 @@ public class OrderService {
                 .hamperData(orderHamper.getHamperData())
                 .hamperName(orderHamper.getHamperName())
                 .screenshot(orderHamper.getScreenshot())
+                .screenshotSha256(orderHamper.getScreenshotSha256())
+                .screenshotThumbnail(orderHamper.getScreenshotThumbnail())
+                .screenshotSize(orderHamper.getScreenshotSize())
+                .screenshotThumbnailSize(orderHamper.getScreenshotThumbnailSize())
                 .build();
     }
 }
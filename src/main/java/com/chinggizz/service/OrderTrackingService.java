@@ -0,0 +1,71 @@
+package com.chinggizz.service;
+
+import com.chinggizz.dto.OrderTrackingDTO;
+import com.chinggizz.event.OrderStatusChangedEvent;
+import com.chinggizz.exception.ResourceNotFoundException;
+import com.chinggizz.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+
+/**
+ * Public order tracking served from a cache keyed on order number
+ * Status changes are written into cached entries after commit instead of evicting them,
+ * so repeated tracking refreshes only reach the database on the first lookup.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderTrackingService {
+
+    public static final String CACHE = "orderTracking";
+
+    private final OrderRepository orderRepository;
+    private final CacheManager cacheManager;
+
+    public OrderTrackingDTO getTracking(String orderNumber) {
+        Cache cache = cache();
+        OrderTrackingDTO cached = cache.get(orderNumber, OrderTrackingDTO.class);
+        if (cached != null) {
+            return cached;
+        }
+
+        OrderTrackingDTO tracking = orderRepository.findTrackingByOrderNumber(orderNumber)
+                .map(view -> OrderTrackingDTO.builder()
+                        .orderNumber(view.getOrderNumber())
+                        .status(view.getStatus())
+                        .deliveryMethod(view.getDeliveryMethod())
+                        .deliveryDate(view.getDeliveryDate())
+                        .city(view.getCity())
+                        .createdAt(view.getCreatedAt())
+                        .updatedAt(view.getUpdatedAt())
+                        .build())
+                .orElseThrow(() -> new ResourceNotFoundException("Order", "orderNumber", orderNumber));
+        cache.put(orderNumber, tracking);
+        return tracking;
+    }
+
+    /**
+     * Update cached entries in place; orders nobody is tracking stay uncached
+     */
+    @TransactionalEventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        Cache cache = cache();
+        for (OrderStatusChangedEvent.Change change : event.changes()) {
+            OrderTrackingDTO cached = cache.get(change.orderNumber(), OrderTrackingDTO.class);
+            if (cached != null) {
+                cache.put(change.orderNumber(), cached.toBuilder()
+                        .status(change.newStatus())
+                        .updatedAt(change.changedAt())
+                        .build());
+            }
+        }
+    }
+
+    private Cache cache() {
+        return Objects.requireNonNull(cacheManager.getCache(CACHE), "Cache " + CACHE + " is not configured");
+    }
+}
@@ -0,0 +1,261 @@
+package com.chinggizz.service;
+
+import com.chinggizz.dto.ProductFacetsDTO;
+import com.chinggizz.entity.Product;
+import com.chinggizz.enums.PriceBucket;
+import com.chinggizz.enums.ProductType;
+import com.chinggizz.repository.ProductRepository;
+import com.chinggizz.util.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap-indexed facet counts for the product catalog
+ * Every product gets a dense ordinal, and every facet value keeps one bitmap over those ordinals.
+ * A filter combination is answered with bitmap OR (within a facet) and AND (across facets),
+ * so counts for all facets come from memory without touching the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductFacetService {
+
+    public static final String CATEGORY = "categoryId";
+    public static final String PRODUCT_TYPE = "productType";
+    public static final String PRICE_BUCKET = "priceBucket";
+    public static final String CUSTOMIZABLE = "customizable";
+    public static final String IN_STOCK = "inStock";
+
+    private final ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final BitSet active = new BitSet();
+    private final Map<Long, BitSet> byCategory = new TreeMap<>();
+    private final Map<ProductType, BitSet> byProductType = new EnumMap<>(ProductType.class);
+    private final Map<PriceBucket, BitSet> byPriceBucket = new EnumMap<>(PriceBucket.class);
+    private final BitSet customizable = new BitSet();
+    private final BitSet inStock = new BitSet();
+
+    // Updates committed while a rebuild is reading the catalog; replayed over the fresh snapshot.
+    // Non-null only during a rebuild, guarded by the write lock
+    private List<FacetEntry> updatesDuringRebuild;
+
+    /**
+     * Build the index once the application (and DataInitializer) is up
+     * The catalog is read outside the write lock, so updates committed meanwhile are recorded and
+     * re-applied after the swap; otherwise a stale row from the snapshot could overwrite them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            updatesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<FacetEntry> entries = null;
+        int replayed = 0;
+        try {
+            entries = productRepository.findAll().stream()
+                    .map(FacetEntry::of)
+                    .toList();
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (entries != null) {
+                    ordinals.clear();
+                    active.clear();
+                    byCategory.clear();
+                    byProductType.clear();
+                    byPriceBucket.clear();
+                    customizable.clear();
+                    inStock.clear();
+                    entries.forEach(this::apply);
+                    updatesDuringRebuild.forEach(this::apply);
+                    replayed = updatesDuringRebuild.size();
+                }
+            } finally {
+                updatesDuringRebuild = null;
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Product facet index built for {} products ({} concurrent updates replayed)", entries.size(), replayed);
+    }
+
+    /**
+     * Re-index a product once the surrounding transaction commits
+     * The entry is captured now so later changes to the managed entity don't leak in
+     */
+    public void indexAfterCommit(Product product) {
+        FacetEntry entry = FacetEntry.of(product);
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                apply(entry);
+                if (updatesDuringRebuild != null) {
+                    updatesDuringRebuild.add(entry);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Count products for a filter combination
+     * Each facet is counted against all other active filters (but not its own),
+     * so selecting a chip never hides its sibling values.
+     */
+    public ProductFacetsDTO getFacets(Set<Long> categoryIds, Set<ProductType> productTypes,
+                                      Set<PriceBucket> priceBuckets, Boolean isCustomizable, Boolean isInStock) {
+        lock.readLock().lock();
+        try {
+            Map<String, BitSet> selections = new LinkedHashMap<>();
+            selections.put(CATEGORY, union(byCategory, categoryIds));
+            selections.put(PRODUCT_TYPE, union(byProductType, productTypes));
+            selections.put(PRICE_BUCKET, union(byPriceBucket, priceBuckets));
+            selections.put(CUSTOMIZABLE, flag(customizable, isCustomizable));
+            selections.put(IN_STOCK, flag(inStock, isInStock));
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put(CATEGORY, count(matchingExcept(selections, CATEGORY), byCategory));
+            facets.put(PRODUCT_TYPE, count(matchingExcept(selections, PRODUCT_TYPE), byProductType));
+            facets.put(PRICE_BUCKET, count(matchingExcept(selections, PRICE_BUCKET), byPriceBucket));
+            facets.put(CUSTOMIZABLE, countFlag(matchingExcept(selections, CUSTOMIZABLE), customizable));
+            facets.put(IN_STOCK, countFlag(matchingExcept(selections, IN_STOCK), inStock));
+
+            return ProductFacetsDTO.builder()
+                    .matchingProducts(matchingExcept(selections, null).cardinality())
+                    .facets(facets)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(FacetEntry entry) {
+        int ordinal = ordinals.computeIfAbsent(entry.productId(), id -> ordinals.size());
+
+        // Clear the previous position of this product in every bitmap
+        active.clear(ordinal);
+        byCategory.values().forEach(bits -> bits.clear(ordinal));
+        byProductType.values().forEach(bits -> bits.clear(ordinal));
+        byPriceBucket.values().forEach(bits -> bits.clear(ordinal));
+        customizable.clear(ordinal);
+        inStock.clear(ordinal);
+
+        if (!entry.active()) {
+            return;
+        }
+
+        active.set(ordinal);
+        if (entry.categoryId() != null) {
+            byCategory.computeIfAbsent(entry.categoryId(), id -> new BitSet()).set(ordinal);
+        }
+        if (entry.productType() != null) {
+            byProductType.computeIfAbsent(entry.productType(), type -> new BitSet()).set(ordinal);
+        }
+        byPriceBucket.computeIfAbsent(PriceBucket.of(entry.price()), bucket -> new BitSet()).set(ordinal);
+        if (entry.customizable()) {
+            customizable.set(ordinal);
+        }
+        // Null stock means unlimited stock
+        if (entry.stockQuantity() == null || entry.stockQuantity() > 0) {
+            inStock.set(ordinal);
+        }
+    }
+
+    private <K> BitSet union(Map<K, BitSet> bitmaps, Set<K> selected) {
+        if (selected == null || selected.isEmpty()) {
+            return null;
+        }
+        BitSet result = new BitSet();
+        for (K key : selected) {
+            BitSet bits = bitmaps.get(key);
+            if (bits != null) {
+                result.or(bits);
+            }
+        }
+        return result;
+    }
+
+    private BitSet flag(BitSet bits, Boolean wanted) {
+        if (wanted == null) {
+            return null;
+        }
+        BitSet result = (BitSet) active.clone();
+        if (wanted) {
+            result.and(bits);
+        } else {
+            result.andNot(bits);
+        }
+        return result;
+    }
+
+    private BitSet matchingExcept(Map<String, BitSet> selections, String excludedFacet) {
+        BitSet result = (BitSet) active.clone();
+        selections.forEach((facet, bits) -> {
+            if (bits != null && !facet.equals(excludedFacet)) {
+                result.and(bits);
+            }
+        });
+        return result;
+    }
+
+    private <K> Map<String, Integer> count(BitSet base, Map<K, BitSet> bitmaps) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        bitmaps.forEach((key, bits) -> {
+            BitSet matched = (BitSet) base.clone();
+            matched.and(bits);
+            counts.put(String.valueOf(key), matched.cardinality());
+        });
+        return counts;
+    }
+
+    private Map<String, Integer> countFlag(BitSet base, BitSet bits) {
+        BitSet matched = (BitSet) base.clone();
+        matched.and(bits);
+        int trueCount = matched.cardinality();
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("true", trueCount);
+        counts.put("false", base.cardinality() - trueCount);
+        return counts;
+    }
+
+    private record FacetEntry(Long productId, Long categoryId, ProductType productType, BigDecimal price,
+                              boolean customizable, Integer stockQuantity, boolean active) {
+
+        static FacetEntry of(Product product) {
+            return new FacetEntry(
+                    product.getId(),
+                    product.getCategory() != null ? product.getCategory().getId() : null,
+                    product.getProductType(),
+                    product.getPrice(),
+                    Boolean.TRUE.equals(product.getIsCustomizable()),
+                    product.getStockQuantity(),
+                    Boolean.TRUE.equals(product.getActive())
+            );
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package com.chinggizz.service;
+
+import com.chinggizz.dto.ProductDTO;
+import com.chinggizz.dto.ProductImportResultDTO;
+import com.chinggizz.dto.ProductImportResultDTO.RowError;
+import com.chinggizz.entity.Category;
+import com.chinggizz.exception.BadRequestException;
+import com.chinggizz.repository.CategoryRepository;
+import com.chinggizz.util.CsvRecordReader;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk product import from NDJSON or CSV
+ * Rows are parsed one at a time, validated, and written with JDBC batches in chunked
+ * transactions, so a few thousand rows never sit in memory or in one long transaction.
+ * Updates only overwrite the columns present in their row. Each committed chunk is stamped
+ * with its own updated_at and bumps the catalog version, so delta sync sees every chunk.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductImportService {
+
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String CSV = "text/csv";
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO products (name, description, price, product_type, image_url, is_customizable,
+                customization_charge, stock_quantity, active, category_id, customization_options,
+                specifications, additional_images, width_cm, height_cm, depth_cm, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // ProductDTO property and products column for each value in a row, in INSERT_SQL order
+    private static final List<String> COLUMN_PROPERTIES = List.of(
+            "name", "description", "price", "productType", "imageUrl", "isCustomizable", "customizationCharge",
+            "stockQuantity", "active", "categoryId", "customizationOptions", "specifications", "additionalImages",
+            "widthCm", "heightCm", "depthCm");
+    private static final List<String> COLUMN_NAMES = List.of(
+            "name", "description", "price", "product_type", "image_url", "is_customizable", "customization_charge",
+            "stock_quantity", "active", "category_id", "customization_options", "specifications", "additional_images",
+            "width_cm", "height_cm", "depth_cm");
+    private static final int CATEGORY_COLUMN = COLUMN_PROPERTIES.indexOf("categoryId");
+
+    // Explicit SQL types so null parameters don't need a metadata round trip per row
+    private static final int[] COLUMN_TYPES = {
+            Types.VARCHAR, Types.VARCHAR, Types.NUMERIC, Types.VARCHAR, Types.VARCHAR, Types.BOOLEAN,
+            Types.NUMERIC, Types.INTEGER, Types.BOOLEAN, Types.BIGINT, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC
+    };
+    private static final int[] INSERT_TYPES = append(COLUMN_TYPES, Types.TIMESTAMP, Types.TIMESTAMP);
+
+    private final CategoryRepository categoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ProductFacetService productFacetService;
+    private final CatalogVersionService catalogVersionService;
+
+    /**
+     * Import products from a streamed request body
+     * Rows with an id update that product; rows without one are inserted. The catalog version is
+     * bumped and the product caches cleared once, after the last chunk has committed (or the import
+     * failed part way through), rather than for every chunk.
+     */
+    public ProductImportResultDTO importProducts(InputStream body, String contentType) {
+        long start = System.currentTimeMillis();
+        ImportRun run = new ImportRun(loadCategoryIds());
+
+        try {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+                if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith(CSV)) {
+                    readCsv(reader, run);
+                } else {
+                    readNdjson(reader, run);
+                }
+            } catch (IOException e) {
+                throw new BadRequestException("Could not read import body: " + e.getMessage());
+            }
+            run.flush();
+        } finally {
+            if (run.lastCommittedAt != null) {
+                catalogVersionService.bump(run.lastCommittedAt);
+            }
+        }
+        run.errors.sort(Comparator.comparing(RowError::getRow));
+
+        if (run.inserted + run.updated > 0) {
+            productFacetService.rebuild();
+        }
+
+        long duration = System.currentTimeMillis() - start;
+        log.info("Product import finished: {} rows, {} inserted, {} updated, {} failed in {} ms",
+                run.rows, run.inserted, run.updated, run.failed, duration);
+
+        return ProductImportResultDTO.builder()
+                .totalRows((int) run.rows)
+                .inserted(run.inserted)
+                .updated(run.updated)
+                .failed(run.failed)
+                .durationMs(duration)
+                .errors(run.errors)
+                .build();
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            long row = ++run.rows;
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                if (!node.isObject()) {
+                    run.fail(row, "Invalid row: expected a JSON object");
+                    continue;
+                }
+                Set<String> fields = new HashSet<>();
+                node.fieldNames().forEachRemaining(fields::add);
+                run.accept(row, objectMapper.treeToValue(node, ProductDTO.class), fields);
+            } catch (IOException e) {
+                run.fail(row, "Invalid row: " + e.getMessage().lines().findFirst().orElse(""));
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header;
+        try {
+            header = csv.readRecord();
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid CSV header: " + e.getMessage());
+        }
+        if (header == null) {
+            throw new BadRequestException("CSV header row is required");
+        }
+
+        while (true) {
+            List<String> record;
+            try {
+                record = csv.readRecord();
+            } catch (IllegalArgumentException e) {
+                run.fail(++run.rows, "Invalid CSV: " + e.getMessage());
+                return;
+            }
+            if (record == null) {
+                return;
+            }
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+
+            long row = ++run.rows;
+            if (record.size() > header.size()) {
+                run.fail(row, "Row has " + record.size() + " columns, header has " + header.size());
+                continue;
+            }
+            Map<String, String> values = new LinkedHashMap<>();
+            for (int i = 0; i < record.size(); i++) {
+                if (!record.get(i).isEmpty()) {
+                    values.put(header.get(i).trim(), record.get(i));
+                }
+            }
+            try {
+                run.accept(row, objectMapper.convertValue(values, ProductDTO.class), values.keySet());
+            } catch (IllegalArgumentException e) {
+                run.fail(row, "Invalid row: " + e.getMessage().lines().findFirst().orElse(""));
+            }
+        }
+    }
+
+    private Map<String, Long> loadCategoryIds() {
+        Map<String, Long> categoryIds = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            categoryIds.put("id:" + category.getId(), category.getId());
+            categoryIds.put("name:" + category.getName().trim().toLowerCase(Locale.ROOT), category.getId());
+        }
+        return categoryIds;
+    }
+
+    /**
+     * State of one import: the preloaded category map, the pending chunk and the counters
+     */
+    private class ImportRun {
+
+        private final Map<String, Long> categoryIds;
+        private final List<Long> pendingInsertRows = new ArrayList<>();
+        private final List<Object[]> pendingInserts = new ArrayList<>();
+        private final List<PendingUpdate> pendingUpdates = new ArrayList<>();
+        private final List<RowError> errors = new ArrayList<>();
+
+        private long rows;
+        private int inserted;
+        private int updated;
+        private int failed;
+        // updated_at of the last chunk that committed a write
+        private LocalDateTime lastCommittedAt;
+
+        ImportRun(Map<String, Long> categoryIds) {
+            this.categoryIds = categoryIds;
+        }
+
+        /**
+         * Queue a parsed row; fields are the properties the row actually carried
+         */
+        void accept(long row, ProductDTO product, Set<String> fields) {
+            boolean insert = product.getId() == null;
+            String error = validate(product, fields, insert);
+            if (error != null) {
+                fail(row, error);
+                return;
+            }
+
+            Long categoryId = resolveCategory(product);
+            if (categoryId == null && (product.getCategoryId() != null || hasText(product.getCategoryName()))) {
+                fail(row, "Unknown category: " + (product.getCategoryId() != null
+                        ? product.getCategoryId() : product.getCategoryName()));
+                return;
+            }
+
+            Object[] columns = {
+                    product.getName() != null ? product.getName().trim() : null,
+                    product.getDescription(),
+                    product.getPrice(),
+                    product.getProductType() != null ? product.getProductType().name() : null,
+                    product.getImageUrl(),
+                    Boolean.TRUE.equals(product.getIsCustomizable()),
+                    product.getCustomizationCharge() != null ? product.getCustomizationCharge() : BigDecimal.ZERO,
+                    product.getStockQuantity(),
+                    product.getActive() == null || product.getActive(),
+                    categoryId,
+                    product.getCustomizationOptions(),
+                    product.getSpecifications(),
+                    product.getAdditionalImages(),
+                    product.getWidthCm(),
+                    product.getHeightCm(),
+                    product.getDepthCm()
+            };
+
+            if (insert) {
+                pendingInsertRows.add(row);
+                pendingInserts.add(columns);
+            } else {
+                pendingUpdates.add(new PendingUpdate(row, product.getId(), presentColumns(fields), columns));
+            }
+
+            if (pendingInserts.size() + pendingUpdates.size() >= CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void fail(long row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(row, message));
+            }
+        }
+
+        /**
+         * Write the pending chunk in one transaction: one insert batch, and one update batch per
+         * distinct set of present columns. The chunk's updated_at is taken here, right before it
+         * commits, and recorded once the commit succeeds for the version bump at the end of the import.
+         */
+        void flush() {
+            if (pendingInserts.isEmpty() && pendingUpdates.isEmpty()) {
+                return;
+            }
+            LocalDateTime chunkAt = LocalDateTime.now();
+            Timestamp chunkTimestamp = Timestamp.valueOf(chunkAt);
+            Map<Integer, List<PendingUpdate>> updatesByColumns = pendingUpdates.stream()
+                    .collect(Collectors.groupingBy(PendingUpdate::columnMask, LinkedHashMap::new, Collectors.toList()));
+            try {
+                Map<PendingUpdate, Integer> updateCounts = transactionTemplate.execute(status -> {
+                    if (!pendingInserts.isEmpty()) {
+                        List<Object[]> inserts = pendingInserts.stream()
+                                .map(columns -> append(columns, chunkTimestamp, chunkTimestamp))
+                                .toList();
+                        jdbcTemplate.batchUpdate(INSERT_SQL, inserts, INSERT_TYPES);
+                    }
+                    Map<PendingUpdate, Integer> counts = new LinkedHashMap<>();
+                    updatesByColumns.forEach((mask, updates) -> {
+                        List<Object[]> args = updates.stream()
+                                .map(update -> update.arguments(chunkTimestamp))
+                                .toList();
+                        int[] result = jdbcTemplate.batchUpdate(updateSql(mask), args, updateTypes(mask));
+                        for (int i = 0; i < result.length; i++) {
+                            counts.put(updates.get(i), result[i]);
+                        }
+                    });
+                    return counts;
+                });
+
+                int chunkWrites = pendingInserts.size();
+                inserted += pendingInserts.size();
+                for (PendingUpdate update : pendingUpdates) {
+                    // Drivers may report SUCCESS_NO_INFO (-2) for batched statements
+                    if (updateCounts.get(update) == 0) {
+                        fail(update.row(), "Product not found with id: " + update.id());
+                    } else {
+                        updated++;
+                        chunkWrites++;
+                    }
+                }
+                if (chunkWrites > 0) {
+                    lastCommittedAt = chunkAt;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Product import chunk failed, rolling back {} rows",
+                        pendingInsertRows.size() + pendingUpdates.size(), e);
+                String message = "Chunk rolled back: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                pendingInsertRows.forEach(row -> fail(row, message));
+                pendingUpdates.forEach(update -> fail(update.row(), message));
+            } finally {
+                pendingInsertRows.clear();
+                pendingInserts.clear();
+                pendingUpdates.clear();
+            }
+        }
+
+        private Long resolveCategory(ProductDTO product) {
+            if (product.getCategoryId() != null) {
+                return categoryIds.get("id:" + product.getCategoryId());
+            }
+            if (hasText(product.getCategoryName())) {
+                return categoryIds.get("name:" + product.getCategoryName().trim().toLowerCase(Locale.ROOT));
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A queued update; only the columns whose bit is set in columnMask are written
+     */
+    private record PendingUpdate(long row, Long id, int columnMask, Object[] columns) {
+
+        Object[] arguments(Timestamp updatedAt) {
+            List<Object> args = new ArrayList<>();
+            for (int i = 0; i < columns.length; i++) {
+                if ((columnMask & (1 << i)) != 0) {
+                    args.add(columns[i]);
+                }
+            }
+            args.add(updatedAt);
+            args.add(id);
+            return args.toArray();
+        }
+    }
+
+    private static int presentColumns(Set<String> fields) {
+        int mask = 0;
+        for (int i = 0; i < COLUMN_PROPERTIES.size(); i++) {
+            boolean present = fields.contains(COLUMN_PROPERTIES.get(i))
+                    || (i == CATEGORY_COLUMN && fields.contains("categoryName"));
+            if (present) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+
+    private static String updateSql(int columnMask) {
+        StringBuilder sql = new StringBuilder("UPDATE products SET ");
+        for (int i = 0; i < COLUMN_NAMES.size(); i++) {
+            if ((columnMask & (1 << i)) != 0) {
+                sql.append(COLUMN_NAMES.get(i)).append(" = ?, ");
+            }
+        }
+        return sql.append("updated_at = ? WHERE id = ?").toString();
+    }
+
+    private static int[] updateTypes(int columnMask) {
+        int[] types = new int[Integer.bitCount(columnMask) + 2];
+        int next = 0;
+        for (int i = 0; i < COLUMN_TYPES.length; i++) {
+            if ((columnMask & (1 << i)) != 0) {
+                types[next++] = COLUMN_TYPES[i];
+            }
+        }
+        types[next++] = Types.TIMESTAMP;
+        types[next] = Types.BIGINT;
+        return types;
+    }
+
+    /**
+     * Inserts need every required field; updates only validate the fields their row carries
+     */
+    private static String validate(ProductDTO product, Set<String> fields, boolean insert) {
+        if ((insert || fields.contains("name")) && !hasText(product.getName())) {
+            return "name is required";
+        }
+        if (product.getName() != null && product.getName().trim().length() > 200) {
+            return "name must be at most 200 characters";
+        }
+        if (product.getDescription() != null && product.getDescription().length() > 1000) {
+            return "description must be at most 1000 characters";
+        }
+        if (product.getImageUrl() != null && product.getImageUrl().length() > 500) {
+            return "imageUrl must be at most 500 characters";
+        }
+        if ((insert || fields.contains("price")) && product.getPrice() == null) {
+            return "price is required";
+        }
+        if (product.getPrice() != null && product.getPrice().signum() < 0) {
+            return "price must not be negative";
+        }
+        if ((insert || fields.contains("productType")) && product.getProductType() == null) {
+            return "productType is required";
+        }
+        if (product.getStockQuantity() != null && product.getStockQuantity() < 0) {
+            return "stockQuantity must not be negative";
+        }
+        return null;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static Object[] append(Object[] columns, Object... extra) {
+        Object[] result = Arrays.copyOf(columns, columns.length + extra.length);
+        System.arraycopy(extra, 0, result, columns.length, extra.length);
+        return result;
+    }
+
+    private static int[] append(int[] types, int... extra) {
+        int[] result = Arrays.copyOf(types, types.length + extra.length);
+        System.arraycopy(extra, 0, result, types.length, extra.length);
+        return result;
+    }
+}
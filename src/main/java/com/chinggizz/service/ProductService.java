@@ -7,12 +7,14 @@ import com.chinggizz.enums.ProductType;
 import com.chinggizz.exception.ResourceNotFoundException;
 import com.chinggizz.repository.CategoryRepository;
 import com.chinggizz.repository.ProductRepository;
+import com.chinggizz.timing.CatalogLoadEvent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,13 +25,18 @@ public class ProductService {
     
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final ProductFacetService productFacetService;
+    private final CatalogVersionService catalogVersionService;
     
     @Cacheable(value = "products", unless = "#result.isEmpty()")
     public List<ProductDTO> getAllActiveProducts() {
-        return productRepository.findByActiveTrue()
+        CatalogLoadEvent load = CatalogLoadEvent.begin("products", null);
+        List<ProductDTO> loaded = productRepository.findByActiveTrue()
                 .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        load.commit(loaded.size(), 0);
+        return loaded;
     }
 
     public ProductDTO getProductById(Long id) {
@@ -40,18 +47,24 @@ public class ProductService {
 
     @Cacheable(value = "productsByCategory", key = "#categoryId", unless = "#result.isEmpty()")
     public List<ProductDTO> getProductsByCategory(Long categoryId) {
-        return productRepository.findByCategoryIdAndActiveTrue(categoryId)
+        CatalogLoadEvent load = CatalogLoadEvent.begin("productsByCategory", categoryId);
+        List<ProductDTO> loaded = productRepository.findByCategoryIdAndActiveTrue(categoryId)
                 .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        load.commit(loaded.size(), 0);
+        return loaded;
     }
 
     @Cacheable(value = "productsByType", key = "#productType", unless = "#result.isEmpty()")
     public List<ProductDTO> getProductsByType(ProductType productType) {
-        return productRepository.findByProductTypeAndActiveTrue(productType)
+        CatalogLoadEvent load = CatalogLoadEvent.begin("productsByType", productType);
+        List<ProductDTO> loaded = productRepository.findByProductTypeAndActiveTrue(productType)
                 .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        load.commit(loaded.size(), 0);
+        return loaded;
     }
     
     public List<ProductDTO> getCustomizableProducts() {
@@ -61,8 +74,18 @@ public class ProductService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Active and deactivated products changed after the given time, for catalog delta sync
+     */
+    public List<ProductDTO> getProductsUpdatedAfter(LocalDateTime since) {
+        return productRepository.findUpdatedAfter(since)
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+    
     @Transactional
-    @CacheEvict(value = {"products", "productsByCategory", "productsByType"}, allEntries = true)
+    @CacheEvict(value = {"products", "productsByCategory", "productsByType", "bootstrap"}, allEntries = true)
     public ProductDTO createProduct(ProductDTO productDTO) {
         Category category = null;
         if (productDTO.getCategoryId() != null) {
@@ -90,11 +113,13 @@ public class ProductService {
                 .build();
 
         Product saved = productRepository.save(product);
+        productFacetService.indexAfterCommit(saved);
+        catalogVersionService.bumpAfterCommit(saved);
         return convertToDTO(saved);
     }
     
     @Transactional
-    @CacheEvict(value = {"products", "productsByCategory", "productsByType"}, allEntries = true)
+    @CacheEvict(value = {"products", "productsByCategory", "productsByType", "bootstrap"}, allEntries = true)
     public ProductDTO updateProduct(Long id, ProductDTO productDTO) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
@@ -124,16 +149,20 @@ public class ProductService {
         product.setDepthCm(productDTO.getDepthCm());
 
         Product updated = productRepository.save(product);
+        productFacetService.indexAfterCommit(updated);
+        catalogVersionService.bumpAfterCommit(updated);
         return convertToDTO(updated);
     }
     
     @Transactional
-    @CacheEvict(value = {"products", "productsByCategory", "productsByType"}, allEntries = true)
+    @CacheEvict(value = {"products", "productsByCategory", "productsByType", "bootstrap"}, allEntries = true)
     public void deleteProduct(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
         product.setActive(false);
         productRepository.save(product);
+        productFacetService.indexAfterCommit(product);
+        catalogVersionService.bumpAfterCommit(product);
     }
     
     private ProductDTO convertToDTO(Product product) {
@@ -0,0 +1,337 @@
+package com.chinggizz.service;
+
+import com.chinggizz.dto.SalesDashboardDTO;
+import com.chinggizz.dto.SalesDashboardDTO.DailySales;
+import com.chinggizz.dto.SalesDashboardDTO.ProductSales;
+import com.chinggizz.dto.SalesDashboardDTO.Totals;
+import com.chinggizz.entity.Product;
+import com.chinggizz.entity.SalesRollup;
+import com.chinggizz.enums.RollupDimension;
+import com.chinggizz.event.OrderCreatedEvent;
+import com.chinggizz.event.OrderStatusChangedEvent;
+import com.chinggizz.exception.BadRequestException;
+import com.chinggizz.repository.ProductRepository;
+import com.chinggizz.repository.SalesRollupRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Incrementally maintained sales rollups for the admin dashboard
+ * Order creation and status changes are applied as deltas to the sales_rollups table after
+ * commit, on a single writer thread so request threads never wait for a second connection.
+ * The table can be rebuilt from orders at any time with set-based INSERT ... SELECT statements;
+ * a rebuild records a watermark of the orders it counted, and creation deltas for those orders
+ * that were still queued behind the rebuild are skipped instead of being counted twice. Status
+ * changes cannot commit while a rebuild runs (they wait at commit), so the rebuild also knows
+ * exactly which status deltas its snapshot already reflects and skips those the same way.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesRollupService {
+
+    private static final int DEFAULT_DAYS = 30;
+    private static final int TOP_PRODUCTS = 10;
+    private static final String DIRECT = "DIRECT";
+    private static final String HAMPER = "HAMPER";
+    // Ids just below the watermark that were not committed yet when it was taken are tracked exactly
+    private static final int WATERMARK_WINDOW = 1000;
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Single writer: deltas and rebuilds are applied one at a time, in commit order
+    private final ThreadPoolExecutor writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(10_000), runnable -> {
+                Thread thread = new Thread(runnable, "sales-rollup-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    // Status changes hold the read side from just before commit until their delta is queued; a
+    // rebuild holds the write side, so every change committed before it has a sequence number
+    private final ReentrantReadWriteLock statusCommits = new ReentrantReadWriteLock();
+    private final AtomicLong statusChangesQueued = new AtomicLong();
+
+    // Orders and status changes counted by the last rebuild; only touched on the writer thread
+    private RebuildWatermark watermark = RebuildWatermark.NONE;
+
+    @TransactionalEventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        submit(() -> applyOrderCreated(event));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void holdStatusCommit(OrderStatusChangedEvent event) {
+        statusCommits.readLock().lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                statusCommits.readLock().unlock();
+            }
+        });
+    }
+
+    @TransactionalEventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        long sequence = statusChangesQueued.incrementAndGet();
+        submit(() -> applyStatusChanges(event, sequence));
+    }
+
+    /**
+     * Dashboard totals for a date range (defaults to the last 30 days)
+     * Reads O(days) summary rows instead of every order
+     */
+    @Transactional(readOnly = true)
+    public SalesDashboardDTO getDashboard(LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        if (start.isAfter(end)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+
+        Map<String, Totals> byStatus = new TreeMap<>();
+        Map<String, Totals> byChannel = new TreeMap<>();
+        Map<LocalDate, DailySales> days = new TreeMap<>();
+
+        for (SalesRollup rollup : salesRollupRepository.findByDimensionInAndRollupDateBetweenOrderByRollupDateAsc(
+                EnumSet.of(RollupDimension.STATUS, RollupDimension.CHANNEL), start, end)) {
+            // Status rows drop to zero once all their orders have moved on
+            if (rollup.getOrderCount() == 0 && rollup.getRevenue().signum() == 0) {
+                continue;
+            }
+            DailySales day = days.computeIfAbsent(rollup.getRollupDate(), date -> DailySales.builder()
+                    .date(date)
+                    .byStatus(new TreeMap<>())
+                    .byChannel(new TreeMap<>())
+                    .build());
+            boolean status = rollup.getDimension() == RollupDimension.STATUS;
+            accumulate(status ? byStatus : byChannel, rollup);
+            accumulate(status ? day.getByStatus() : day.getByChannel(), rollup);
+        }
+
+        return SalesDashboardDTO.builder()
+                .from(start)
+                .to(end)
+                .byStatus(byStatus)
+                .byChannel(byChannel)
+                .days(new ArrayList<>(days.values()))
+                .topProducts(getTopProducts(start, end))
+                .build();
+    }
+
+    /**
+     * Recompute all rollups from the orders tables
+     * Runs on the writer thread so it cannot interleave with incremental deltas. Status updates
+     * wait at commit until it finishes, which keeps the order statuses it reads stable.
+     */
+    public int rebuild() {
+        try {
+            return writer.submit(() -> {
+                statusCommits.writeLock().lock();
+                try {
+                    RebuildWatermark covered = transactionTemplate.execute(status -> takeWatermark());
+                    int rows = transactionTemplate.execute(status -> {
+                        LocalDateTime now = LocalDateTime.now();
+                        long maxOrderId = covered.maxOrderId();
+                        // NOT IN () is not valid SQL, so an empty exclusion list gets an id that never exists
+                        List<Long> excluded = covered.uncommittedIds().isEmpty()
+                                ? List.of(-1L) : List.copyOf(covered.uncommittedIds());
+                        salesRollupRepository.deleteAllRollups();
+                        return salesRollupRepository.rebuildStatusRollups(now, maxOrderId, excluded)
+                                + salesRollupRepository.rebuildDirectChannelRollups(now, maxOrderId, excluded)
+                                + salesRollupRepository.rebuildHamperChannelRollups(now, maxOrderId, excluded)
+                                + salesRollupRepository.rebuildProductRollups(now, maxOrderId, excluded);
+                    });
+                    watermark = covered;
+                    log.info("Sales rollups rebuilt: {} rows, orders up to id {} ({} pending ids left to deltas), "
+                                    + "status changes up to #{}",
+                            rows, covered.maxOrderId(), covered.uncommittedIds().size(), covered.statusChanges());
+                    return rows;
+                } finally {
+                    statusCommits.writeLock().unlock();
+                }
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebuilding sales rollups", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to rebuild sales rollups", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+    }
+
+    private void submit(Runnable task) {
+        try {
+            writer.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.error("Failed to apply sales rollup delta; rebuild rollups to repair", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Sales rollup queue full, dropping delta; rebuild rollups to repair");
+        }
+    }
+
+    /**
+     * The highest order id now, plus the ids just below it that are not visible yet (open transactions
+     * or rollbacks); those are left out of the rebuild and still counted by their own deltas. Called
+     * with status commits held off, so every status change queued so far is in the snapshot.
+     */
+    private RebuildWatermark takeWatermark() {
+        long maxOrderId = salesRollupRepository.findMaxOrderId();
+        long windowStart = Math.max(0, maxOrderId - WATERMARK_WINDOW);
+        Set<Long> visible = new HashSet<>(salesRollupRepository.findOrderIdsBetween(windowStart, maxOrderId));
+        Set<Long> uncommitted = LongStream.rangeClosed(windowStart + 1, maxOrderId)
+                .filter(id -> !visible.contains(id))
+                .boxed()
+                .collect(Collectors.toSet());
+        return new RebuildWatermark(maxOrderId, uncommitted, statusChangesQueued.get());
+    }
+
+    private void applyOrderCreated(OrderCreatedEvent event) {
+        if (watermark.covers(event.orderId())) {
+            log.debug("Skipping rollup delta for order {}, already counted by the last rebuild", event.orderId());
+            return;
+        }
+        LocalDate day = dayOf(event.createdAt());
+        transactionTemplate.executeWithoutResult(status -> {
+            add(day, RollupDimension.STATUS, event.status().name(), 1, 0, event.totalAmount());
+
+            if (!event.items().isEmpty()) {
+                long units = event.items().stream().mapToLong(OrderCreatedEvent.ItemLine::quantity).sum();
+                add(day, RollupDimension.CHANNEL, DIRECT, 1, units, sum(event.items(), OrderCreatedEvent.ItemLine::totalPrice));
+            }
+            if (!event.hamperTotals().isEmpty()) {
+                add(day, RollupDimension.CHANNEL, HAMPER, 1, event.hamperTotals().size(), sum(event.hamperTotals(), Function.identity()));
+            }
+
+            event.items().stream()
+                    .collect(Collectors.groupingBy(OrderCreatedEvent.ItemLine::productId, LinkedHashMap::new, Collectors.toList()))
+                    .forEach((productId, lines) -> add(day, RollupDimension.PRODUCT, String.valueOf(productId), 1,
+                            lines.stream().mapToLong(OrderCreatedEvent.ItemLine::quantity).sum(),
+                            sum(lines, OrderCreatedEvent.ItemLine::totalPrice)));
+        });
+    }
+
+    private void applyStatusChanges(OrderStatusChangedEvent event, long sequence) {
+        if (watermark.coversStatusChange(sequence)) {
+            log.debug("Skipping rollup delta for status change #{}, already counted by the last rebuild", sequence);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            for (OrderStatusChangedEvent.Change change : event.changes()) {
+                LocalDate day = dayOf(change.orderCreatedAt());
+                BigDecimal amount = change.totalAmount() != null ? change.totalAmount() : BigDecimal.ZERO;
+                add(day, RollupDimension.STATUS, change.previousStatus().name(), -1, 0, amount.negate());
+                add(day, RollupDimension.STATUS, change.newStatus().name(), 1, 0, amount);
+            }
+        });
+    }
+
+    private void add(LocalDate day, RollupDimension dimension, String key, long orders, long units, BigDecimal revenue) {
+        BigDecimal amount = revenue != null ? revenue : BigDecimal.ZERO;
+        int updated = salesRollupRepository.increment(day, dimension.name(), key, orders, units, amount, LocalDateTime.now());
+        if (updated == 0) {
+            salesRollupRepository.save(SalesRollup.builder()
+                    .rollupDate(day)
+                    .dimension(dimension)
+                    .dimensionKey(key)
+                    .orderCount(orders)
+                    .units(units)
+                    .revenue(amount)
+                    .build());
+        }
+    }
+
+    private List<ProductSales> getTopProducts(LocalDate from, LocalDate to) {
+        List<SalesRollupRepository.ProductTotals> totals = salesRollupRepository.findTopProducts(from, to, TOP_PRODUCTS);
+        Map<Long, String> names = productRepository.findAllById(totals.stream()
+                        .map(total -> Long.valueOf(total.getProductKey()))
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Product::getName));
+
+        return totals.stream()
+                .map(total -> {
+                    Long productId = Long.valueOf(total.getProductKey());
+                    return ProductSales.builder()
+                            .productId(productId)
+                            .productName(names.get(productId))
+                            .orders(total.getOrderCount())
+                            .units(total.getUnits())
+                            .revenue(total.getRevenue())
+                            .build();
+                })
+                .toList();
+    }
+
+    private static void accumulate(Map<String, Totals> totals, SalesRollup rollup) {
+        Totals current = totals.computeIfAbsent(rollup.getDimensionKey(),
+                key -> new Totals(0L, 0L, BigDecimal.ZERO));
+        current.setOrders(current.getOrders() + rollup.getOrderCount());
+        current.setUnits(current.getUnits() + rollup.getUnits());
+        current.setRevenue(current.getRevenue().add(rollup.getRevenue()));
+    }
+
+    private static <T> BigDecimal sum(List<T> items, Function<T, BigDecimal> amount) {
+        return items.stream()
+                .map(amount)
+                .filter(value -> value != null)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static LocalDate dayOf(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.toLocalDate() : LocalDate.now();
+    }
+
+    private record RebuildWatermark(long maxOrderId, Set<Long> uncommittedIds, long statusChanges) {
+
+        static final RebuildWatermark NONE = new RebuildWatermark(0, Set.of(), 0);
+
+        boolean covers(Long orderId) {
+            return orderId != null && orderId <= maxOrderId && !uncommittedIds.contains(orderId);
+        }
+
+        boolean coversStatusChange(long sequence) {
+            return sequence <= statusChanges;
+        }
+    }
+}
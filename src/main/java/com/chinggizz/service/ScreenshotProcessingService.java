@@ -0,0 +1,126 @@
+package com.chinggizz.service;
+
+import com.chinggizz.event.OrderCreatedEvent;
+import com.chinggizz.repository.OrderHamperRepository;
+import com.chinggizz.util.ImageTranscoder;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous transcoding of uploaded hamper screenshots
+ * After an order commits, each screenshot file is decoded once and re-encoded as a compressed
+ * JPEG for the order detail view plus a small JPEG thumbnail for order lists. The full JPEG
+ * only replaces the upload when it is actually smaller; the original stays in place on any failure.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScreenshotProcessingService {
+
+    private static final int WORKERS = 2;
+    private static final int QUEUE_CAPACITY = 100;
+    private static final int THUMBNAIL_MAX_SIDE = 320;
+    private static final float FULL_QUALITY = 0.85f;
+    private static final float THUMBNAIL_QUALITY = 0.75f;
+
+    private final FileStorageService fileStorageService;
+    private final OrderHamperRepository orderHamperRepository;
+
+    // Decoded images take 4 bytes per pixel, so this bounds the heap one decode can claim
+    @Value("${app.upload.max-image-pixels:16000000}")
+    private long maxImagePixels;
+
+    // Bounded pool: decoding is CPU and memory heavy, so bursts queue up instead of piling on
+    private final AtomicInteger workerCount = new AtomicInteger();
+    private final ThreadPoolExecutor workers = new ThreadPoolExecutor(WORKERS, WORKERS, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                Thread thread = new Thread(runnable, "screenshot-worker-" + workerCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    @TransactionalEventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        for (OrderCreatedEvent.ScreenshotFile screenshot : event.screenshots()) {
+            try {
+                workers.execute(() -> process(screenshot));
+            } catch (RejectedExecutionException e) {
+                // The original upload stays usable; it just isn't thumbnailed
+                log.warn("Screenshot queue full, skipping processing for order hamper {}", screenshot.orderHamperId());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private void process(OrderCreatedEvent.ScreenshotFile screenshot) {
+        String url = screenshot.url();
+        int slash = url.lastIndexOf('/');
+        String baseUrl = url.substring(0, slash + 1);
+        String fileName = url.substring(slash + 1);
+        String baseName = fileName.contains(".") ? fileName.substring(0, fileName.lastIndexOf('.')) : fileName;
+
+        Path storage = fileStorageService.getFileStorageLocation();
+        Path full = storage.resolve(baseName + "-full.jpg");
+        Path thumbnail = storage.resolve(baseName + "-thumb.jpg");
+
+        try {
+            Path original = fileStorageService.localCopy(fileName)
+                    .orElseThrow(() -> new IOException("Screenshot " + fileName + " is not stored"));
+            BufferedImage image = ImageTranscoder.read(original, maxImagePixels);
+            if (image == null) {
+                log.warn("No image decoder for screenshot {}, leaving it unprocessed", fileName);
+                return;
+            }
+            BufferedImage opaque = ImageTranscoder.toOpaqueRgb(image);
+            long originalSize = Files.size(original);
+            long fullSize = ImageTranscoder.writeJpeg(opaque, full, FULL_QUALITY);
+            long thumbnailSize = ImageTranscoder.writeJpeg(
+                    ImageTranscoder.scaleDown(opaque, THUMBNAIL_MAX_SIDE), thumbnail, THUMBNAIL_QUALITY);
+
+            boolean useJpeg = fullSize < originalSize;
+            if (useJpeg) {
+                fileStorageService.publish(full.getFileName().toString());
+            } else {
+                Files.deleteIfExists(full);
+            }
+            fileStorageService.publish(thumbnail.getFileName().toString());
+            String screenshotUrl = useJpeg ? baseUrl + full.getFileName() : url;
+            int updated = orderHamperRepository.updateScreenshotRenditions(screenshot.orderHamperId(), url,
+                    screenshotUrl, useJpeg ? fullSize : originalSize,
+                    baseUrl + thumbnail.getFileName(), thumbnailSize);
+
+            if (updated == 0) {
+                fileStorageService.deleteFile(full.getFileName().toString());
+                fileStorageService.deleteFile(thumbnail.getFileName().toString());
+                return;
+            }
+            if (useJpeg) {
+                fileStorageService.deleteFile(fileName);
+            }
+            log.info("Processed screenshot for order hamper {}: {} -> {} bytes, thumbnail {} bytes",
+                    screenshot.orderHamperId(), originalSize, useJpeg ? fullSize : originalSize, thumbnailSize);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to process screenshot {} for order hamper {}", fileName, screenshot.orderHamperId(), e);
+            fileStorageService.deleteFile(full.getFileName().toString());
+            fileStorageService.deleteFile(thumbnail.getFileName().toString());
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.chinggizz.service;
+
+import com.chinggizz.dto.StorageReclaimResultDTO;
+import com.chinggizz.exception.BadRequestException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reclaims uploaded files nothing refers to any more
+ * Products are only soft-deleted and replaced images are never removed, so the upload directory
+ * otherwise only grows. A scheduled run collects every image name referenced by products,
+ * categories, hamper boxes and order screenshots (streamed, not loaded as entities), lists the
+ * stored files (upload directory or bucket) and deletes unreferenced files older than a grace
+ * period in small, paced batches. Resized variants live as long as their original; abandoned
+ * upload temp files are removed as well. Right before each delete the file is stat'ed and looked up
+ * in the database again, since a deduplicated re-upload or a new reference may have claimed it
+ * after the listing.
+ */
+@Service
+@Slf4j
+public class StorageReclaimService {
+
+    private static final Pattern IMAGE_REFERENCE = Pattern.compile("/api/products/images/([A-Za-z0-9._-]+)");
+    private static final Pattern VARIANT_STEM = Pattern.compile("(.+)-w\\d+");
+    private static final int FETCH_SIZE = 500;
+
+    // Legacy screenshots are inline base64 data URLs; the LIKE filter keeps those off the wire
+    private static final String REFERENCES_SQL = """
+            SELECT image_url FROM products WHERE image_url IS NOT NULL
+            UNION ALL SELECT additional_images FROM products WHERE additional_images IS NOT NULL
+            UNION ALL SELECT image_url FROM categories WHERE image_url IS NOT NULL
+            UNION ALL SELECT image_url FROM hamper_boxes WHERE image_url IS NOT NULL
+            UNION ALL SELECT screenshot FROM order_hampers WHERE screenshot LIKE '%/api/products/images/%'
+            UNION ALL SELECT screenshot_thumbnail FROM order_hampers WHERE screenshot_thumbnail IS NOT NULL
+            """;
+
+    private static final String IS_REFERENCED_SQL = """
+            SELECT CASE WHEN EXISTS (SELECT 1 FROM products WHERE image_url LIKE ? OR additional_images LIKE ?)
+                OR EXISTS (SELECT 1 FROM categories WHERE image_url LIKE ?)
+                OR EXISTS (SELECT 1 FROM hamper_boxes WHERE image_url LIKE ?)
+                OR EXISTS (SELECT 1 FROM order_hampers WHERE screenshot LIKE ? OR screenshot_thumbnail LIKE ?)
+            THEN 1 ELSE 0 END
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FileStorageService fileStorageService;
+    private final boolean enabled;
+    private final Duration gracePeriod;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ThreadPoolExecutor manualRuns = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "storage-reclaim");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private volatile StorageReclaimResultDTO lastResult;
+
+    public StorageReclaimService(JdbcTemplate jdbcTemplate,
+                                 FileStorageService fileStorageService,
+                                 @Value("${app.upload.gc.enabled:true}") boolean enabled,
+                                 @Value("${app.upload.gc.grace-period:P1D}") Duration gracePeriod,
+                                 @Value("${app.upload.gc.batch-size:50}") int batchSize,
+                                 @Value("${app.upload.gc.batch-pause:PT1S}") Duration batchPause) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fileStorageService = fileStorageService;
+        this.enabled = enabled;
+        this.gracePeriod = gracePeriod;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchPause = batchPause;
+    }
+
+    @Scheduled(initialDelayString = "${app.upload.gc.initial-delay:PT10M}",
+               fixedDelayString = "${app.upload.gc.interval:PT6H}")
+    public void scheduledReclaim() {
+        if (!enabled) {
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            log.info("Skipping scheduled storage reclaim: a run is already in progress");
+            return;
+        }
+        try {
+            reclaimOrphans();
+        } catch (RuntimeException e) {
+            log.error("Storage reclaim failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Start a reclaim in the background now (admin trigger); refuses to overlap with a run in progress
+     */
+    public void reclaim() {
+        if (!running.compareAndSet(false, true)) {
+            throw new BadRequestException("Storage reclaim is already running");
+        }
+        try {
+            manualRuns.execute(() -> {
+                try {
+                    reclaimOrphans();
+                } catch (RuntimeException e) {
+                    log.error("Storage reclaim failed", e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Result of the last completed run, scheduled or manual
+     */
+    public Optional<StorageReclaimResultDTO> getLastResult() {
+        return Optional.ofNullable(lastResult);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        manualRuns.shutdownNow();
+    }
+
+    private StorageReclaimResultDTO reclaimOrphans() {
+        long startedAt = System.nanoTime();
+        // Snapshot the cutoff before reading references, so anything uploaded during the run is kept
+        Instant cutoff = Instant.now().minus(gracePeriod);
+        Set<String> referenced = loadReferencedFileNames();
+        Set<String> referencedStems = new HashSet<>();
+        referenced.forEach(name -> referencedStems.add(stem(name)));
+
+        AtomicInteger scanned = new AtomicInteger();
+        List<Orphan> orphans = new ArrayList<>();
+        try {
+            fileStorageService.listStoredFiles(file -> {
+                scanned.incrementAndGet();
+                if (file.lastModified().isBefore(cutoff) && !isReferenced(file.name(), referenced, referencedStems)) {
+                    orphans.add(new Orphan(file.name(), file.size()));
+                }
+            });
+        } catch (IOException e) {
+            log.error("Could not list stored files", e);
+        }
+
+        int deleted = 0;
+        long bytesReclaimed = 0;
+        for (int from = 0; from < orphans.size(); from += batchSize) {
+            if (from > 0 && !pause()) {
+                break;
+            }
+            for (Orphan orphan : orphans.subList(from, Math.min(from + batchSize, orphans.size()))) {
+                if (stillOrphaned(orphan.name(), cutoff) && fileStorageService.deleteFile(orphan.name())) {
+                    deleted++;
+                    bytesReclaimed += orphan.size();
+                }
+            }
+        }
+
+        StorageReclaimResultDTO result = StorageReclaimResultDTO.builder()
+                .filesScanned(scanned.get())
+                .referencedFiles(referenced.size())
+                .filesDeleted(deleted)
+                .bytesReclaimed(bytesReclaimed)
+                .durationMs(Duration.ofNanos(System.nanoTime() - startedAt).toMillis())
+                .build();
+        log.info("Storage reclaim: scanned {} files, deleted {} orphans, reclaimed {} bytes in {} ms",
+                scanned.get(), deleted, bytesReclaimed, result.getDurationMs());
+        lastResult = result;
+        return result;
+    }
+
+    /**
+     * Re-check a listed orphan right before deleting it: still older than the cutoff (a
+     * deduplicated upload refreshes the modification time) and still not referenced anywhere
+     */
+    private boolean stillOrphaned(String name, Instant cutoff) {
+        Optional<Instant> lastModified = fileStorageService.lastModified(name);
+        if (lastModified.isEmpty() || !lastModified.get().isBefore(cutoff)) {
+            return false;
+        }
+        if (name.endsWith(".tmp")) {
+            return true;
+        }
+        List<String> patterns = new ArrayList<>();
+        patterns.add("%/api/products/images/" + name + "%");
+        Matcher variant = VARIANT_STEM.matcher(stem(name));
+        if (variant.matches()) {
+            patterns.add("%/api/products/images/" + variant.group(1) + ".%");
+        }
+        for (String pattern : patterns) {
+            Integer referenced = jdbcTemplate.queryForObject(IS_REFERENCED_SQL, Integer.class,
+                    pattern, pattern, pattern, pattern, pattern, pattern);
+            if (referenced != null && referenced > 0) {
+                log.info("Keeping {}: referenced since the reclaim run started", name);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Set<String> loadReferencedFileNames() {
+        Set<String> referenced = new HashSet<>();
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(REFERENCES_SQL);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, row -> {
+            Matcher matcher = IMAGE_REFERENCE.matcher(row.getString(1));
+            while (matcher.find()) {
+                referenced.add(matcher.group(1));
+            }
+        });
+        return referenced;
+    }
+
+    private static boolean isReferenced(String name, Set<String> referenced, Set<String> referencedStems) {
+        if (name.endsWith(".tmp")) {
+            // Temp files of uploads or variant writes that never completed
+            return false;
+        }
+        if (referenced.contains(name)) {
+            return true;
+        }
+        Matcher variant = VARIANT_STEM.matcher(stem(name));
+        return variant.matches() && referencedStems.contains(variant.group(1));
+    }
+
+    private static String stem(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record Orphan(String name, long size) {}
+}
@@ -0,0 +1,91 @@
+package com.chinggizz.service.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cluster-wide limit backed by JdbcBucketStore
+ * Each instance takes tokens from the shared bucket in small batches and spends them locally, so
+ * most requests never touch the database; a client that ran dry is refused locally until the
+ * shared bucket's window ends. Batches only ever move tokens out of the shared bucket, so the
+ * combined rate across instances stays within the limit (a client bouncing between instances may
+ * be refused on one while another still holds part of its batch). If the database is unavailable,
+ * the route falls back to per-instance buckets rather than failing requests.
+ */
+@Slf4j
+public class DistributedRateLimiter implements RateLimiter {
+
+    private final JdbcBucketStore store;
+    private final String route;
+    private final long capacity;
+    private final Duration period;
+    private final long batchSize;
+    private final Duration idleTimeout;
+    private final Cache<String, Allowance> allowances;
+    private final RateLimiter fallback;
+    private final AtomicBoolean degraded = new AtomicBoolean();
+
+    public DistributedRateLimiter(JdbcBucketStore store, String route, long capacity, Duration period,
+                                  long batchSize, long maxClients, Duration idleTimeout) {
+        this.store = store;
+        this.route = route;
+        this.capacity = capacity;
+        this.period = period;
+        this.batchSize = Math.max(1, Math.min(batchSize, capacity));
+        this.idleTimeout = idleTimeout;
+        this.allowances = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(period)
+                .build();
+        this.fallback = new LocalRateLimiter(capacity, period, maxClients, idleTimeout);
+    }
+
+    @Override
+    public boolean tryConsume(String clientKey) {
+        Allowance allowance = allowances.get(clientKey, key -> new Allowance());
+        synchronized (allowance) {
+            long now = System.currentTimeMillis();
+            if (now < allowance.validUntil) {
+                if (allowance.tokens > 0) {
+                    allowance.tokens--;
+                    return true;
+                }
+                if (allowance.exhausted) {
+                    return false;
+                }
+            }
+
+            JdbcBucketStore.Grant grant;
+            try {
+                grant = store.reserve(route + ":" + clientKey, capacity, period, batchSize, idleTimeout);
+            } catch (DataAccessException e) {
+                if (degraded.compareAndSet(false, true)) {
+                    log.warn("Shared rate limit store unavailable for {}, limiting per instance", route, e);
+                }
+                return fallback.tryConsume(clientKey);
+            }
+            if (degraded.compareAndSet(true, false)) {
+                log.info("Shared rate limit store for {} is available again", route);
+            }
+
+            allowance.validUntil = grant.windowEnd();
+            allowance.exhausted = grant.tokens() == 0;
+            allowance.tokens = Math.max(0, grant.tokens() - 1);
+            return grant.tokens() > 0;
+        }
+    }
+
+    /**
+     * Tokens this instance holds for one client, and whether the shared bucket was empty
+     */
+    private static final class Allowance {
+        private long tokens;
+        private long validUntil;
+        private boolean exhausted;
+    }
+}
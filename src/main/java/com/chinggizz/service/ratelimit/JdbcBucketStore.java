@@ -0,0 +1,105 @@
+package com.chinggizz.service.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Shared token buckets in the rate_limit_buckets table, so every instance draws from one budget
+ * Buckets refill to capacity at the start of each period (like Bucket4j's intervally refill).
+ * Updates are compare-and-set on a version column: no row locks and no transaction, just a read
+ * and a conditional update, retried when another instance got there first.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "mode", havingValue = "jdbc")
+@RequiredArgsConstructor
+@Slf4j
+public class JdbcBucketStore {
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private static final String SELECT_SQL =
+            "SELECT tokens, window_start, version FROM rate_limit_buckets WHERE bucket_key = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO rate_limit_buckets (bucket_key, tokens, window_start, idle_until, version) VALUES (?, ?, ?, ?, 0)";
+    private static final String UPDATE_SQL =
+            "UPDATE rate_limit_buckets SET tokens = ?, window_start = ?, idle_until = ?, version = version + 1 "
+                    + "WHERE bucket_key = ? AND version = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Take up to wanted tokens from the shared bucket
+     * The grant is only valid until windowEnd: the bucket refills after that, so tokens held
+     * locally past it must be discarded or the limit could be exceeded.
+     */
+    public Grant reserve(String key, long capacity, Duration period, long wanted, Duration idleTimeout) {
+        long periodMillis = period.toMillis();
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            long now = System.currentTimeMillis();
+            long idleUntil = now + Math.max(periodMillis, idleTimeout.toMillis());
+            List<BucketRow> rows = jdbcTemplate.query(SELECT_SQL,
+                    (rs, rowNum) -> new BucketRow(rs.getLong(1), rs.getLong(2), rs.getLong(3)), key);
+
+            if (rows.isEmpty()) {
+                long granted = Math.min(wanted, capacity);
+                try {
+                    jdbcTemplate.update(INSERT_SQL, key, capacity - granted, now, idleUntil);
+                    return new Grant(granted, now + periodMillis);
+                } catch (DuplicateKeyException e) {
+                    continue;
+                }
+            }
+
+            BucketRow row = rows.get(0);
+            long tokens = row.tokens();
+            long windowStart = row.windowStart();
+            long elapsedPeriods = (now - windowStart) / periodMillis;
+            if (elapsedPeriods > 0) {
+                tokens = capacity;
+                windowStart += elapsedPeriods * periodMillis;
+            }
+            long granted = Math.min(wanted, tokens);
+            if (granted == 0) {
+                // Nothing to take and nothing to write
+                return new Grant(0, windowStart + periodMillis);
+            }
+            int updated = jdbcTemplate.update(UPDATE_SQL, tokens - granted, windowStart, idleUntil, key, row.version());
+            if (updated == 1) {
+                return new Grant(granted, windowStart + periodMillis);
+            }
+        }
+        log.debug("Rate limit bucket {} is heavily contended, denying this request", key);
+        return new Grant(0, System.currentTimeMillis() + 1000);
+    }
+
+    /**
+     * Drop buckets nobody has touched for longer than their idle timeout
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.idle-timeout:PT10M}")
+    public void deleteIdleBuckets() {
+        try {
+            int deleted = jdbcTemplate.update("DELETE FROM rate_limit_buckets WHERE idle_until < ?",
+                    System.currentTimeMillis());
+            if (deleted > 0) {
+                log.info("Deleted {} idle rate limit buckets", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not delete idle rate limit buckets", e);
+        }
+    }
+
+    /**
+     * Tokens handed to one instance, usable until windowEnd (epoch millis)
+     */
+    public record Grant(long tokens, long windowEnd) {}
+
+    private record BucketRow(long tokens, long windowStart, long version) {}
+}
@@ -0,0 +1,51 @@
+package com.chinggizz.service.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+
+import java.time.Duration;
+
+/**
+ * In-memory Bucket4j buckets, one per client, private to this instance
+ * The bucket store is bounded in size and drops idle buckets, so floods of distinct (or spoofed)
+ * addresses cannot grow it without limit; an expired bucket would have refilled by then anyway.
+ */
+public class LocalRateLimiter implements RateLimiter {
+
+    private final Cache<String, Bucket> buckets;
+    private final long capacity;
+    private final Duration period;
+
+    public LocalRateLimiter(long capacity, Duration period, long maxClients, Duration idleTimeout) {
+        this.capacity = capacity;
+        this.period = period;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleTimeout.compareTo(period) < 0 ? period : idleTimeout)
+                .build();
+    }
+
+    @Override
+    public boolean tryConsume(String clientKey) {
+        return buckets.get(clientKey, key -> createNewBucket()).tryConsume(1);
+    }
+
+    /**
+     * Buckets currently held, after pending evictions have run
+     */
+    long trackedClients() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    private Bucket createNewBucket() {
+        // Allow capacity requests per period per client
+        Bandwidth limit = Bandwidth.classic(capacity, Refill.intervally(capacity, period));
+        return Bucket.builder()
+                .addLimit(limit)
+                .build();
+    }
+}
@@ -0,0 +1,12 @@
+package com.chinggizz.service.ratelimit;
+
+/**
+ * Per-client request budget for one rate-limited route
+ */
+public interface RateLimiter {
+
+    /**
+     * Take one request from the client's budget; false when it is used up
+     */
+    boolean tryConsume(String clientKey);
+}
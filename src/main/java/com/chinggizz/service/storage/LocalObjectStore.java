@@ -0,0 +1,97 @@
+package com.chinggizz.service.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Default backend: files live only in the local upload directory (app.storage.type=local)
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.storage", name = "type", havingValue = "local", matchIfMissing = true)
+public class LocalObjectStore implements ObjectStore {
+
+    private final Path root;
+
+    public LocalObjectStore(@Value("${app.upload.dir:uploads/products}") String uploadDir) {
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
+
+    @Override
+    public void put(String name, Path source, String contentType) throws IOException {
+        Path target = root.resolve(name);
+        if (!source.toAbsolutePath().normalize().equals(target)) {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public boolean fetch(String name, Path target) throws IOException {
+        Path source = root.resolve(name);
+        if (!Files.isRegularFile(source)) {
+            return false;
+        }
+        if (!source.equals(target.toAbsolutePath().normalize())) {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return true;
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String name) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(root.resolve(name), BasicFileAttributes.class);
+            return attributes.isRegularFile()
+                    ? Optional.of(new StoredObject(name, attributes.size(), attributes.lastModifiedTime().toInstant()))
+                    : Optional.empty();
+        } catch (NoSuchFileException ex) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void delete(String name) throws IOException {
+        Files.deleteIfExists(root.resolve(name));
+    }
+
+    @Override
+    public void touch(String name, String contentType) throws IOException {
+        Files.setLastModifiedTime(root.resolve(name), FileTime.from(Instant.now()));
+    }
+
+    @Override
+    public void list(Consumer<StoredObject> visitor) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root)) {
+            for (Path file : files) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (attributes.isRegularFile()) {
+                    visitor.accept(new StoredObject(file.getFileName().toString(), attributes.size(),
+                            attributes.lastModifiedTime().toInstant()));
+                }
+            }
+        }
+    }
+
+    @Override
+    public Optional<DirectDownload> directDownload(String name) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,58 @@
+package com.chinggizz.service.storage;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Backend that durably holds uploaded files, addressed by file name
+ * FileStorageService always works on files in the local upload directory; for the local backend
+ * that directory is the store itself, for remote backends it is a read-through disk cache.
+ */
+public interface ObjectStore {
+
+    /**
+     * True when the upload directory is the store itself (nothing to copy or fetch)
+     */
+    boolean isLocal();
+
+    /**
+     * Persist a finished local file under the given name
+     */
+    void put(String name, Path source, String contentType) throws IOException;
+
+    /**
+     * Copy a stored file into target; false when no such file is stored
+     */
+    boolean fetch(String name, Path target) throws IOException;
+
+    Optional<StoredObject> stat(String name) throws IOException;
+
+    void delete(String name) throws IOException;
+
+    /**
+     * Refresh a stored file's modification time (keeps re-used uploads out of the reclaimer's reach)
+     */
+    void touch(String name, String contentType) throws IOException;
+
+    /**
+     * Visit every stored file; remote listings are paged, never loaded at once
+     */
+    void list(Consumer<StoredObject> visitor) throws IOException;
+
+    /**
+     * Time-limited URL clients can download the file from directly, if the backend supports it
+     */
+    Optional<DirectDownload> directDownload(String name);
+
+    record StoredObject(String name, long size, Instant lastModified) {}
+
+    /**
+     * A direct download URL and how long a redirect to it may be cached
+     */
+    record DirectDownload(URI url, Duration cacheFor) {}
+}
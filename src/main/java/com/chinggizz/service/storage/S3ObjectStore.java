@@ -0,0 +1,370 @@
+package com.chinggizz.service.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * S3-compatible backend (AWS S3, MinIO, Cloudflare R2, ...) selected with app.storage.type=s3
+ * Talks to the S3 REST API directly with SigV4-signed requests. Uploads stream from the local file,
+ * switching to multipart uploads above the part size; downloads can be handed to clients as
+ * presigned URLs so the application does not proxy image bytes.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.storage", name = "type", havingValue = "s3")
+@Slf4j
+public class S3ObjectStore implements ObjectStore {
+
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(2);
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final S3RequestSigner signer;
+    private final URI endpoint;
+    private final String bucket;
+    private final String keyPrefix;
+    private final boolean pathStyle;
+    private final long partSize;
+    private final boolean presignedDownloads;
+    private final Duration presignTtl;
+
+    public S3ObjectStore(@Value("${app.storage.s3.endpoint}") String endpoint,
+                         @Value("${app.storage.s3.region:us-east-1}") String region,
+                         @Value("${app.storage.s3.bucket}") String bucket,
+                         @Value("${app.storage.s3.access-key}") String accessKey,
+                         @Value("${app.storage.s3.secret-key}") String secretKey,
+                         @Value("${app.storage.s3.key-prefix:products/}") String keyPrefix,
+                         @Value("${app.storage.s3.path-style:true}") boolean pathStyle,
+                         @Value("${app.storage.s3.part-size:8388608}") long partSize,
+                         @Value("${app.storage.s3.presigned-downloads:true}") boolean presignedDownloads,
+                         @Value("${app.storage.s3.presign-ttl:PT1H}") Duration presignTtl) {
+        if (bucket == null || bucket.isBlank()) {
+            throw new IllegalStateException("app.storage.s3.bucket must be set when app.storage.type=s3");
+        }
+        this.signer = new S3RequestSigner(accessKey, secretKey, region);
+        this.endpoint = URI.create(endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint);
+        this.bucket = bucket;
+        this.keyPrefix = keyPrefix;
+        this.pathStyle = pathStyle;
+        this.partSize = Math.max(MIN_PART_SIZE, partSize);
+        this.presignedDownloads = presignedDownloads;
+        this.presignTtl = presignTtl;
+        log.info("Using S3 object storage: bucket {} at {}", bucket, this.endpoint);
+    }
+
+    @Override
+    public boolean isLocal() {
+        return false;
+    }
+
+    @Override
+    public void put(String name, Path source, String contentType) throws IOException {
+        long size = Files.size(source);
+        if (size > partSize) {
+            putMultipart(name, source, size, contentType);
+            return;
+        }
+        HttpResponse<String> response = send("PUT", objectUri(name), Map.of(),
+                Map.of("Content-Type", contentType, "Cache-Control", IMMUTABLE),
+                HttpRequest.BodyPublishers.ofFile(source), S3RequestSigner.UNSIGNED_PAYLOAD,
+                HttpResponse.BodyHandlers.ofString());
+        expectSuccess(response, "PUT " + name);
+    }
+
+    @Override
+    public boolean fetch(String name, Path target) throws IOException {
+        HttpResponse<Path> response = send("GET", objectUri(name), Map.of(), Map.of(),
+                HttpRequest.BodyPublishers.noBody(), S3RequestSigner.EMPTY_PAYLOAD,
+                info -> info.statusCode() == 200
+                        ? HttpResponse.BodySubscribers.ofFile(target)
+                        : HttpResponse.BodySubscribers.replacing(null));
+        if (response.statusCode() == 404) {
+            return false;
+        }
+        if (response.statusCode() != 200) {
+            Files.deleteIfExists(target);
+            throw new IOException("GET " + name + " failed with HTTP " + response.statusCode());
+        }
+        return true;
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String name) throws IOException {
+        HttpResponse<Void> response = send("HEAD", objectUri(name), Map.of(), Map.of(),
+                HttpRequest.BodyPublishers.noBody(), S3RequestSigner.EMPTY_PAYLOAD,
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 404) {
+            return Optional.empty();
+        }
+        expectSuccess(response, "HEAD " + name);
+        long size = response.headers().firstValueAsLong("Content-Length").orElse(0);
+        Instant lastModified = response.headers().firstValue("Last-Modified")
+                .map(value -> ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant())
+                .orElse(Instant.EPOCH);
+        return Optional.of(new StoredObject(name, size, lastModified));
+    }
+
+    @Override
+    public void delete(String name) throws IOException {
+        HttpResponse<String> response = send("DELETE", objectUri(name), Map.of(), Map.of(),
+                HttpRequest.BodyPublishers.noBody(), S3RequestSigner.EMPTY_PAYLOAD,
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 404) {
+            expectSuccess(response, "DELETE " + name);
+        }
+    }
+
+    /**
+     * S3 has no "touch": copying an object onto itself with replaced metadata resets LastModified
+     */
+    @Override
+    public void touch(String name, String contentType) throws IOException {
+        String source = "/" + bucket + "/" + S3RequestSigner.encode(keyPrefix + name).replace("%2F", "/");
+        HttpResponse<String> response = send("PUT", objectUri(name), Map.of(),
+                Map.of("x-amz-copy-source", source, "x-amz-metadata-directive", "REPLACE",
+                        "Content-Type", contentType, "Cache-Control", IMMUTABLE),
+                HttpRequest.BodyPublishers.noBody(), S3RequestSigner.EMPTY_PAYLOAD,
+                HttpResponse.BodyHandlers.ofString());
+        expectSuccess(response, "COPY " + name);
+    }
+
+    @Override
+    public void list(Consumer<StoredObject> visitor) throws IOException {
+        String continuationToken = null;
+        do {
+            Map<String, String> query = new TreeMap<>();
+            query.put("list-type", "2");
+            query.put("prefix", keyPrefix);
+            if (continuationToken != null) {
+                query.put("continuation-token", continuationToken);
+            }
+            HttpResponse<byte[]> response = send("GET", bucketUri(), query, Map.of(),
+                    HttpRequest.BodyPublishers.noBody(), S3RequestSigner.EMPTY_PAYLOAD,
+                    HttpResponse.BodyHandlers.ofByteArray());
+            expectSuccess(response, "LIST " + keyPrefix);
+
+            Element result = parseXml(response.body());
+            NodeList contents = result.getElementsByTagName("Contents");
+            for (int i = 0; i < contents.getLength(); i++) {
+                Element object = (Element) contents.item(i);
+                String name = text(object, "Key").substring(keyPrefix.length());
+                if (!name.isEmpty() && !name.contains("/")) {
+                    visitor.accept(new StoredObject(name, Long.parseLong(text(object, "Size")),
+                            Instant.parse(text(object, "LastModified"))));
+                }
+            }
+            continuationToken = "true".equals(text(result, "IsTruncated"))
+                    ? text(result, "NextContinuationToken")
+                    : null;
+        } while (continuationToken != null);
+    }
+
+    /**
+     * Presigned GET URL, signed at the start of the current half-TTL window so the URL (and the
+     * browser's cached copy of the image behind it) stays the same for the whole window
+     */
+    @Override
+    public Optional<DirectDownload> directDownload(String name) {
+        if (!presignedDownloads) {
+            return Optional.empty();
+        }
+        long window = Math.max(1, presignTtl.toSeconds() / 2);
+        Instant signedAt = Instant.ofEpochSecond(Instant.now().getEpochSecond() / window * window);
+        URI url = signer.presign("GET", objectUri(name), Map.of(), presignTtl, signedAt);
+        return Optional.of(new DirectDownload(url, Duration.ofSeconds(window)));
+    }
+
+    /**
+     * Upload in fixed-size parts, each streamed from its slice of the file; aborted on any failure
+     * so no orphaned parts are left behind in the bucket
+     */
+    private void putMultipart(String name, Path source, long size, String contentType) throws IOException {
+        URI uri = objectUri(name);
+        HttpResponse<byte[]> created = send("POST", uri, Map.of("uploads", ""),
+                Map.of("Content-Type", contentType, "Cache-Control", IMMUTABLE),
+                HttpRequest.BodyPublishers.noBody(), S3RequestSigner.EMPTY_PAYLOAD,
+                HttpResponse.BodyHandlers.ofByteArray());
+        expectSuccess(created, "CreateMultipartUpload " + name);
+        String uploadId = text(parseXml(created.body()), "UploadId");
+
+        try {
+            List<String> etags = new ArrayList<>();
+            for (long offset = 0; offset < size; offset += partSize) {
+                long length = Math.min(partSize, size - offset);
+                long partOffset = offset;
+                HttpRequest.BodyPublisher part = HttpRequest.BodyPublishers.fromPublisher(
+                        HttpRequest.BodyPublishers.ofInputStream(() -> sliceOf(source, partOffset, length)), length);
+                HttpResponse<String> uploaded = send("PUT", uri,
+                        Map.of("partNumber", String.valueOf(etags.size() + 1), "uploadId", uploadId), Map.of(),
+                        part, S3RequestSigner.UNSIGNED_PAYLOAD, HttpResponse.BodyHandlers.ofString());
+                expectSuccess(uploaded, "UploadPart " + name);
+                etags.add(uploaded.headers().firstValue("ETag")
+                        .orElseThrow(() -> new IOException("UploadPart " + name + " returned no ETag")));
+            }
+
+            StringBuilder xml = new StringBuilder("<CompleteMultipartUpload>");
+            for (int i = 0; i < etags.size(); i++) {
+                xml.append("<Part><PartNumber>").append(i + 1).append("</PartNumber><ETag>")
+                        .append(etags.get(i).replace("\"", "&quot;")).append("</ETag></Part>");
+            }
+            byte[] body = xml.append("</CompleteMultipartUpload>").toString().getBytes(StandardCharsets.UTF_8);
+            HttpResponse<String> completed = send("POST", uri, Map.of("uploadId", uploadId),
+                    Map.of("Content-Type", "application/xml"),
+                    HttpRequest.BodyPublishers.ofByteArray(body), S3RequestSigner.sha256Hex(body),
+                    HttpResponse.BodyHandlers.ofString());
+            // CompleteMultipartUpload can fail with a 200 status and an <Error> body
+            if (completed.body().contains("<Error>")) {
+                throw new IOException("CompleteMultipartUpload " + name + " failed: " + completed.body());
+            }
+            expectSuccess(completed, "CompleteMultipartUpload " + name);
+            log.info("Uploaded {} to S3 in {} parts", name, etags.size());
+        } catch (IOException | RuntimeException ex) {
+            try {
+                send("DELETE", uri, Map.of("uploadId", uploadId), Map.of(),
+                        HttpRequest.BodyPublishers.noBody(), S3RequestSigner.EMPTY_PAYLOAD,
+                        HttpResponse.BodyHandlers.discarding());
+            } catch (IOException abort) {
+                log.warn("Could not abort multipart upload {} of {}", uploadId, name, abort);
+            }
+            throw ex;
+        }
+    }
+
+    private <T> HttpResponse<T> send(String method, URI uri, Map<String, String> query, Map<String, String> headers,
+                                     HttpRequest.BodyPublisher body, String payloadHash,
+                                     HttpResponse.BodyHandler<T> handler) throws IOException {
+        SortedMap<String, String> params = new TreeMap<>(query);
+        SortedMap<String, String> signedHeaders = new TreeMap<>();
+        headers.forEach((name, value) -> signedHeaders.put(name.toLowerCase(), value));
+        signedHeaders.put("host", S3RequestSigner.host(uri));
+        signedHeaders.put("x-amz-date", S3RequestSigner.amzDate(Instant.now()));
+        signedHeaders.put("x-amz-content-sha256", payloadHash);
+
+        String queryString = S3RequestSigner.canonicalQuery(params);
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(uri + (queryString.isEmpty() ? "" : "?" + queryString)))
+                .timeout(REQUEST_TIMEOUT)
+                .method(method, body)
+                .header("Authorization", signer.authorization(method, uri, params, signedHeaders, payloadHash));
+        signedHeaders.forEach((name, value) -> {
+            if (!"host".equals(name)) {
+                request.header(name, value);
+            }
+        });
+
+        try {
+            return httpClient.send(request.build(), handler);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted during S3 " + method + " " + uri, ex);
+        }
+    }
+
+    private URI objectUri(String name) {
+        String key = S3RequestSigner.encode(keyPrefix + name).replace("%2F", "/");
+        return URI.create(bucketUri() + (pathStyle ? "/" : "") + key);
+    }
+
+    private URI bucketUri() {
+        if (pathStyle) {
+            return URI.create(endpoint + "/" + bucket);
+        }
+        return URI.create(endpoint.getScheme() + "://" + bucket + "." + S3RequestSigner.host(endpoint) + "/");
+    }
+
+    private static void expectSuccess(HttpResponse<?> response, String operation) throws IOException {
+        if (response.statusCode() / 100 != 2) {
+            Object body = response.body();
+            throw new IOException(operation + " failed with HTTP " + response.statusCode()
+                    + (body instanceof String text && !text.isEmpty() ? ": " + text : ""));
+        }
+    }
+
+    private static InputStream sliceOf(Path source, long offset, long length) {
+        try {
+            FileChannel channel = FileChannel.open(source);
+            return new InputStream() {
+                private long position = offset;
+                private final long end = offset + length;
+
+                @Override
+                public int read() throws IOException {
+                    byte[] single = new byte[1];
+                    return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+                }
+
+                @Override
+                public int read(byte[] buffer, int off, int len) throws IOException {
+                    if (position >= end) {
+                        return -1;
+                    }
+                    int read = channel.read(ByteBuffer.wrap(buffer, off, (int) Math.min(len, end - position)), position);
+                    if (read > 0) {
+                        position += read;
+                    }
+                    return read;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    channel.close();
+                }
+            };
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static Element parseXml(byte[] body) throws IOException {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+            Document document = factory.newDocumentBuilder().parse(new ByteArrayInputStream(body));
+            return document.getDocumentElement();
+        } catch (ParserConfigurationException | SAXException ex) {
+            throw new IOException("Unexpected S3 response", ex);
+        }
+    }
+
+    private static String text(Element parent, String tag) {
+        NodeList nodes = parent.getElementsByTagName(tag);
+        return nodes.getLength() == 0 ? null : nodes.item(0).getTextContent();
+    }
+}
@@ -0,0 +1,50 @@
+package com.chinggizz.timing;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a catalog cache miss, i.e. one run of a @Cacheable catalog loader
+ */
+@Name("com.chinggizz.CatalogLoad")
+@Label("Catalog Cache Load")
+@Category({"Chinggizz", "Catalog"})
+@Description("A catalog cache entry loaded from the database")
+@StackTrace(false)
+public class CatalogLoadEvent extends Event {
+
+    @Label("Cache")
+    String cache;
+
+    @Label("Key")
+    String key;
+
+    @Label("Result Count")
+    int resultCount;
+
+    @Label("Payload Size")
+    @DataAmount
+    long payloadBytes;
+
+    public static CatalogLoadEvent begin(String cache, Object key) {
+        CatalogLoadEvent event = new CatalogLoadEvent();
+        event.cache = cache;
+        event.key = key == null ? null : key.toString();
+        event.begin();
+        return event;
+    }
+
+    public void commit(int resultCount, long payloadBytes) {
+        end();
+        if (shouldCommit()) {
+            this.resultCount = resultCount;
+            this.payloadBytes = payloadBytes;
+            commit();
+        }
+    }
+}
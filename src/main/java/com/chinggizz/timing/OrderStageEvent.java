@@ -0,0 +1,49 @@
+package com.chinggizz.timing;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one stage of order creation (validation, product resolution, stock
+ * decrement, hamper pricing, persist, notification)
+ * Costs next to nothing when no recording is running: shouldCommit() is false and the JIT
+ * removes the allocation.
+ */
+@Name("com.chinggizz.OrderStage")
+@Label("Order Stage")
+@Category({"Chinggizz", "Orders"})
+@Description("A stage of OrderService.createOrder")
+@StackTrace(false)
+public class OrderStageEvent extends Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Item Count")
+    int itemCount;
+
+    @Label("Payload Size")
+    @DataAmount
+    long payloadBytes;
+
+    public static OrderStageEvent begin(String stage) {
+        OrderStageEvent event = new OrderStageEvent();
+        event.stage = stage;
+        event.begin();
+        return event;
+    }
+
+    public void commit(int itemCount, long payloadBytes) {
+        end();
+        if (shouldCommit()) {
+            this.itemCount = itemCount;
+            this.payloadBytes = payloadBytes;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.chinggizz.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Records a timing breakdown for each request
+ * Requests slower than app.request-timing.slow-threshold are logged with every recorded segment.
+ * With app.request-timing.expose-header on, authenticated (admin) callers also get the breakdown
+ * as a Server-Timing header (JSON responses get it from TimedJacksonHttpMessageConverter, right
+ * before the body is written); anonymous callers never see it, so it reveals nothing about the
+ * backend to the public and their responses are never buffered for it.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private final boolean exposeHeader;
+    private final long slowThresholdNanos;
+
+    public RequestTimingFilter(@Value("${app.request-timing.expose-header:false}") boolean exposeHeader,
+                               @Value("${app.request-timing.slow-threshold:PT1S}") Duration slowThreshold) {
+        this.exposeHeader = exposeHeader;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.start(exposeHeader);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long totalNanos = timings.elapsedNanos();
+            // Bodies that didn't go through Jackson (errors, 204s, small responses) can still take the header
+            if (timings.exposesHeader() && !response.isCommitted() && response.getHeader(SERVER_TIMING) == null) {
+                response.setHeader(SERVER_TIMING, timings.toHeader());
+            }
+            if (totalNanos >= slowThresholdNanos) {
+                log.warn("Slow request method={} path={} status={} {}", request.getMethod(), request.getRequestURI(),
+                        response.getStatus(), timings.toLogFields(totalNanos));
+            }
+            RequestTimings.clear();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.chinggizz.timing;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Feeds Hibernate's JDBC events into the current request's timings
+ * Registered for every session through hibernate.session.events.auto. A session is confined to one
+ * thread, so the start timestamps need no synchronization. Statements run through JdbcTemplate
+ * bypass Hibernate and are not counted.
+ */
+public class RequestTimingSessionListener implements SessionEventListener {
+
+    private long connectionStart;
+    private long executeStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        connectionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        RequestTimings.record(RequestTimings.CONNECTION, System.nanoTime() - connectionStart);
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestTimings.recordStatement(System.nanoTime() - executeStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestTimings.recordStatement(System.nanoTime() - batchStart);
+    }
+}
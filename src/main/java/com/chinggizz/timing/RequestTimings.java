@@ -0,0 +1,135 @@
+package com.chinggizz.timing;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Per-request timing recorder, bound to the request thread by RequestTimingFilter
+ * Accumulates database time (from Hibernate session events), JSON parse/serialization time and
+ * any named application segments. Every static method is a no-op outside a recorded request, so
+ * scheduled jobs and background workers can share the same code paths.
+ */
+public final class RequestTimings {
+
+    public static final String DB = "db";
+    public static final String CONNECTION = "conn";
+    public static final String PARSE = "parse";
+    public static final String SERIALIZE = "ser";
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final boolean exposeHeader;
+    private final Map<String, Long> segments = new LinkedHashMap<>();
+    private int statements;
+    private boolean callerAuthenticated;
+
+    private RequestTimings(boolean exposeHeader) {
+        this.exposeHeader = exposeHeader;
+    }
+
+    static RequestTimings start(boolean exposeHeader) {
+        RequestTimings timings = new RequestTimings(exposeHeader);
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Time a named section of work; repeated sections with the same name add up
+     */
+    public static <T> T time(String name, Supplier<T> work) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null) {
+            return work.get();
+        }
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            timings.add(name, System.nanoTime() - start);
+        }
+    }
+
+    public static void time(String name, Runnable work) {
+        time(name, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Mark the caller as authenticated; only authenticated callers are sent the Server-Timing header
+     */
+    public static void callerAuthenticated() {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.callerAuthenticated = true;
+        }
+    }
+
+    static void record(String name, long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.add(name, nanos);
+        }
+    }
+
+    static void recordStatement(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.statements++;
+            timings.add(DB, nanos);
+        }
+    }
+
+    boolean exposesHeader() {
+        return exposeHeader && callerAuthenticated;
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    private void add(String name, long nanos) {
+        segments.merge(name, nanos, Long::sum);
+    }
+
+    /**
+     * Server-Timing header value, e.g. db;dur=12.4;desc="5 statements", ser;dur=0.8, total;dur=20.1
+     */
+    String toHeader() {
+        StringBuilder header = new StringBuilder();
+        segments.forEach((name, nanos) -> {
+            header.append(name).append(";dur=").append(millis(nanos));
+            if (DB.equals(name)) {
+                header.append(";desc=\"").append(statements).append(statements == 1 ? " statement\"" : " statements\"");
+            }
+            header.append(", ");
+        });
+        return header.append("total;dur=").append(millis(elapsedNanos())).toString();
+    }
+
+    /**
+     * key=value pairs for the slow request log line, e.g. total_ms=1520.3 db_ms=1402.0 db_statements=7
+     */
+    String toLogFields(long totalNanos) {
+        StringBuilder fields = new StringBuilder("total_ms=").append(millis(totalNanos));
+        fields.append(" db_statements=").append(statements);
+        segments.forEach((name, nanos) -> fields.append(' ').append(name).append("_ms=").append(millis(nanos)));
+        return fields.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
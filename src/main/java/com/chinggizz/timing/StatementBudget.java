@@ -0,0 +1,21 @@
+package com.chinggizz.timing;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements a controller endpoint may run per request
+ * Enforced by StatementBudgetTest, which calls every annotated endpoint against seeded data and
+ * counts the JDBC statements it runs, so a reintroduced N+1 query fails the build rather than
+ * slowing production.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface StatementBudget {
+
+    int value();
+}
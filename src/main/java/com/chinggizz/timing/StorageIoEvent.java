@@ -0,0 +1,52 @@
+package com.chinggizz.timing;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for FileStorageService I/O (storing uploads, publishing to and fetching
+ * from object storage, deletes)
+ */
+@Name("com.chinggizz.StorageIo")
+@Label("Storage I/O")
+@Category({"Chinggizz", "Storage"})
+@Description("A file written to, read from or deleted from image storage")
+@StackTrace(false)
+public class StorageIoEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("File Name")
+    String fileName;
+
+    @Label("Remote")
+    @Description("Whether the object store is remote (S3) rather than the local upload directory")
+    boolean remote;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    public static StorageIoEvent begin(String operation, boolean remote) {
+        StorageIoEvent event = new StorageIoEvent();
+        event.operation = operation;
+        event.remote = remote;
+        event.begin();
+        return event;
+    }
+
+    public void commit(String fileName, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.fileName = fileName;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
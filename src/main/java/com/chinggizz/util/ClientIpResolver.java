@@ -0,0 +1,52 @@
+package com.chinggizz.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Client address for per-client limits, honouring X-Forwarded-For only as far as it can be trusted
+ * Each trusted proxy appends the address it received the request from, so with N proxies the
+ * client is the N-th entry from the right; anything further left is client-supplied and may be
+ * forged. Entries that do not look like an IP address fall back to the socket address.
+ */
+public class ClientIpResolver {
+
+    private static final int MAX_ADDRESS_LENGTH = 45;
+
+    private final int trustedProxies;
+
+    public ClientIpResolver(int trustedProxies) {
+        this.trustedProxies = Math.max(0, trustedProxies);
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (trustedProxies == 0 || forwardedFor == null || forwardedFor.isBlank()) {
+            return request.getRemoteAddr();
+        }
+
+        // Walk hops from the right without splitting the whole (client-controlled) header
+        int end = forwardedFor.length();
+        String hop = null;
+        for (int i = 0; i < trustedProxies && end > 0; i++) {
+            int comma = forwardedFor.lastIndexOf(',', end - 1);
+            hop = forwardedFor.substring(comma + 1, end).trim();
+            end = comma < 0 ? 0 : comma;
+        }
+        return isAddress(hop) ? hop : request.getRemoteAddr();
+    }
+
+    private static boolean isAddress(String value) {
+        if (value == null || value.isEmpty() || value.length() > MAX_ADDRESS_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean valid = (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F')
+                    || c == '.' || c == ':';
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
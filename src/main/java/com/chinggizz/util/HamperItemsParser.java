@@ -0,0 +1,170 @@
+package com.chinggizz.util;
+
+import com.chinggizz.exception.InvalidHamperDataException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Streaming extractor for the (productId, quantity) pairs in hamperData
+ * hamperData also carries the 3D layout (positions, rotations, dimensions) and sometimes a
+ * base64 screenshot; those subtrees are skipped token by token instead of being built into a tree.
+ */
+@Component
+public class HamperItemsParser {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final JsonFactory jsonFactory;
+
+    public HamperItemsParser(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Parse items[].productId and items[].quantity
+     * A missing or non-array "items" yields no items, matching the previous tree-based parser
+     */
+    public HamperItems parse(String hamperData) {
+        if (hamperData == null || hamperData.isBlank()) {
+            throw new InvalidHamperDataException("$", 1, 1, "hamper data is empty");
+        }
+        try (JsonParser parser = jsonFactory.createParser(hamperData)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw invalid(parser, "$", "expected a JSON object");
+            }
+            HamperItems items = new HamperItems();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("items".equals(field) && value == JsonToken.START_ARRAY) {
+                    readItems(parser, items);
+                } else if (value == JsonToken.VALUE_STRING) {
+                    // Decoding into the parser's text buffer is faster than skipping char by char,
+                    // which matters for multi-megabyte base64 screenshots; no String is created
+                    parser.getTextLength();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (parser.nextToken() != null) {
+                throw invalid(parser, "$", "unexpected content after the hamper object");
+            }
+            return items;
+        } catch (StreamReadException e) {
+            JsonLocation location = e.getLocation();
+            throw new InvalidHamperDataException("$", location.getLineNr(), location.getColumnNr(), e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new InvalidHamperDataException("$", 1, 1, e.getMessage());
+        }
+    }
+
+    private void readItems(JsonParser parser, HamperItems items) throws IOException {
+        int index = 0;
+        for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken(), index++) {
+            String path = "$.items[" + index + "]";
+            if (token != JsonToken.START_OBJECT) {
+                throw invalid(parser, path, "expected an object");
+            }
+
+            Long productId = null;
+            Integer quantity = null;
+            JsonLocation quantityLocation = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "productId" -> productId = readLong(parser, path + ".productId");
+                    case "quantity" -> {
+                        quantityLocation = parser.currentTokenLocation();
+                        quantity = readInt(parser, path + ".quantity");
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+
+            if (productId == null) {
+                throw invalid(parser, path, "productId is required");
+            }
+            if (quantity == null) {
+                throw invalid(parser, path, "quantity is required");
+            }
+            if (quantity < 1) {
+                throw invalid(quantityLocation, path + ".quantity", "quantity must be at least 1");
+            }
+            items.add(productId, quantity);
+        }
+    }
+
+    private long readLong(JsonParser parser, String path) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_NUMBER_INT -> parser.getLongValue();
+            case VALUE_STRING -> parseLong(parser, path, parser.getText());
+            default -> throw invalid(parser, path, "expected an integer");
+        };
+    }
+
+    private int readInt(JsonParser parser, String path) throws IOException {
+        long value = readLong(parser, path);
+        if (value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+            throw invalid(parser, path, "value out of range");
+        }
+        return (int) value;
+    }
+
+    // Numeric strings were accepted by JsonNode.asLong(), so keep accepting them
+    private long parseLong(JsonParser parser, String path, String text) {
+        try {
+            return Long.parseLong(text.trim());
+        } catch (NumberFormatException e) {
+            throw invalid(parser, path, "expected an integer but got \"" + text + "\"");
+        }
+    }
+
+    private InvalidHamperDataException invalid(JsonParser parser, String path, String reason) {
+        return invalid(parser.currentTokenLocation(), path, reason);
+    }
+
+    private InvalidHamperDataException invalid(JsonLocation location, String path, String reason) {
+        return new InvalidHamperDataException(path, location.getLineNr(), location.getColumnNr(), reason);
+    }
+
+    /**
+     * Parsed hamper items as parallel primitive arrays
+     */
+    public static final class HamperItems {
+
+        private long[] productIds = new long[INITIAL_CAPACITY];
+        private int[] quantities = new int[INITIAL_CAPACITY];
+        private int size;
+
+        private void add(long productId, int quantity) {
+            if (size == productIds.length) {
+                productIds = Arrays.copyOf(productIds, size * 2);
+                quantities = Arrays.copyOf(quantities, size * 2);
+            }
+            productIds[size] = productId;
+            quantities[size] = quantity;
+            size++;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public long productId(int index) {
+            return productIds[index];
+        }
+
+        public int quantity(int index) {
+            return quantities[index];
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.chinggizz.util;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * Utility for decoding, resizing and re-encoding stored images with ImageIO
+ */
+public final class ImageTranscoder {
+
+    private ImageTranscoder() {
+    }
+
+    /**
+     * Decode an image file, or return null when no ImageIO reader understands it (e.g. WebP)
+     * The dimensions are read from the header first, and images over maxPixels are rejected before
+     * any pixel is decoded: a small, highly compressed file can otherwise expand to gigabytes.
+     */
+    public static BufferedImage read(Path path, long maxPixels) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(path.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new IOException("Image " + path.getFileName() + " is " + reader.getWidth(0) + "x"
+                            + reader.getHeight(0) + " pixels, over the limit of " + maxPixels);
+                }
+                return reader.read(0, reader.getDefaultReadParam());
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * JPEG has no alpha channel, so flatten onto white (the storefront and admin background)
+     */
+    public static BufferedImage toOpaqueRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    /**
+     * Scale so the longest side is at most maxSide (never upscales)
+     */
+    public static BufferedImage scaleDown(BufferedImage image, int maxSide) {
+        int longest = Math.max(image.getWidth(), image.getHeight());
+        if (longest <= maxSide) {
+            return image;
+        }
+        return scaleTo(image, Math.max(1, image.getWidth() * maxSide / longest),
+                Math.max(1, image.getHeight() * maxSide / longest));
+    }
+
+    /**
+     * Scale to the given width keeping the aspect ratio (never upscales)
+     */
+    public static BufferedImage scaleToWidth(BufferedImage image, int width) {
+        if (image.getWidth() <= width) {
+            return image;
+        }
+        return scaleTo(image, width, Math.max(1, (int) ((long) image.getHeight() * width / image.getWidth())));
+    }
+
+    /**
+     * Halve repeatedly, then do a final bilinear step, which keeps results sharp without area averaging
+     */
+    private static BufferedImage scaleTo(BufferedImage image, int targetWidth, int targetHeight) {
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage step = new BufferedImage(width, height, type);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    /**
+     * Write a JPEG with explicit quality and return the stored size in bytes
+     */
+    public static long writeJpeg(BufferedImage image, Path target, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        try (OutputStream file = Files.newOutputStream(target);
+             ImageOutputStream out = new MemoryCacheImageOutputStream(file)) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(toOpaqueRgb(image), null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return Files.size(target);
+    }
+
+    /**
+     * Write a PNG (keeps transparency) and return the stored size in bytes
+     */
+    public static long writePng(BufferedImage image, Path target) throws IOException {
+        try (OutputStream file = Files.newOutputStream(target)) {
+            ImageIO.write(image, "png", file);
+        }
+        return Files.size(target);
+    }
+}
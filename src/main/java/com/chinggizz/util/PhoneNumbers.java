@@ -0,0 +1,47 @@
+package com.chinggizz.util;
+
+import java.util.List;
+
+/**
+ * Utility for normalising customer phone numbers
+ * Orders store the national 10-digit form, so "+91 98765-43210", "919876543210"
+ * and "09876543210" all resolve to the same customer.
+ */
+public final class PhoneNumbers {
+
+    private static final String COUNTRY_CODE = "91";
+    private static final int NATIONAL_LENGTH = 10;
+
+    private PhoneNumbers() {
+    }
+
+    /**
+     * Strip formatting, the international prefix and the trunk zero
+     * Returns null when nothing but formatting was given
+     */
+    public static String normalize(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        String digits = phone.replaceAll("\\D", "");
+        if (digits.startsWith("00")) {
+            digits = digits.substring(2);
+        }
+        if (digits.length() == COUNTRY_CODE.length() + NATIONAL_LENGTH && digits.startsWith(COUNTRY_CODE)) {
+            digits = digits.substring(COUNTRY_CODE.length());
+        } else if (digits.length() == NATIONAL_LENGTH + 1 && digits.startsWith("0")) {
+            digits = digits.substring(1);
+        }
+        return digits.isEmpty() ? null : digits;
+    }
+
+    /**
+     * Stored spellings of a normalised number, for matching orders saved before normalisation
+     */
+    public static List<String> storedForms(String normalized) {
+        if (normalized.length() != NATIONAL_LENGTH) {
+            return List.of(normalized);
+        }
+        return List.of(normalized, COUNTRY_CODE + normalized, "0" + normalized);
+    }
+}
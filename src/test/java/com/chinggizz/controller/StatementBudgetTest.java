@@ -0,0 +1,302 @@
+package com.chinggizz.controller;
+
+import com.chinggizz.dto.CreateOrderRequest;
+import com.chinggizz.dto.OrderHamperRequest;
+import com.chinggizz.dto.OrderItemRequest;
+import com.chinggizz.entity.HamperBox;
+import com.chinggizz.entity.Product;
+import com.chinggizz.repository.HamperBoxRepository;
+import com.chinggizz.repository.ProductRepository;
+import com.chinggizz.timing.StatementBudget;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import javax.imageio.ImageIO;
+import javax.sql.DataSource;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Calls every @StatementBudget endpoint against the DataInitializer catalog (plus a hamper box and
+ * a few orders) with cold caches and fails when it runs more JDBC statements than its budget
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(StatementBudgetTest.CountStatements.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StatementBudgetTest {
+
+    private static final StatementCounter STATEMENTS = new StatementCounter();
+    private static final String CUSTOMER_PHONE = "9876543210";
+    private static final int SEEDED_ORDERS = 3;
+    private static final RequestPostProcessor ADMIN = user("admin").roles("ADMIN");
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private RequestMappingHandlerMapping handlerMapping;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private HamperBoxRepository hamperBoxRepository;
+
+    private final Set<Method> covered = new HashSet<>();
+    private List<Product> products;
+    private HamperBox hamperBox;
+    private JsonNode order;
+
+    @BeforeAll
+    void seedOrders() throws Exception {
+        products = productRepository.findAll();
+        assertThat(products).as("DataInitializer catalog").hasSizeGreaterThanOrEqualTo(2);
+        hamperBox = hamperBoxRepository.save(HamperBox.builder()
+                .name("Classic Box")
+                .size("MEDIUM")
+                .price(new BigDecimal("299.00"))
+                .maxItems(6)
+                .active(true)
+                .build());
+        for (int i = 0; i < SEEDED_ORDERS; i++) {
+            MvcResult created = mockMvc.perform(post("/api/orders/create")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsBytes(orderRequest(false))))
+                    .andReturn();
+            assertThat(created.getResponse().getStatus()).isEqualTo(201);
+            order = objectMapper.readTree(created.getResponse().getContentAsByteArray());
+        }
+    }
+
+    @AfterAll
+    void everyBudgetedEndpointIsCovered() {
+        Set<Method> budgeted = new HashSet<>();
+        handlerMapping.getHandlerMethods().values().stream()
+                .filter(handler -> handler.hasMethodAnnotation(StatementBudget.class))
+                .forEach(handler -> budgeted.add(handler.getMethod()));
+        assertThat(covered).as("endpoints exercised by this test").containsExactlyInAnyOrderElementsOf(budgeted);
+    }
+
+    @Test
+    void productEndpoints() throws Exception {
+        Product product = products.get(0);
+        assertWithinBudget(get("/api/products"));
+        assertWithinBudget(get("/api/products/{id}", product.getId()));
+        assertWithinBudget(get("/api/products/category/{categoryId}", product.getCategory().getId()));
+        assertWithinBudget(get("/api/products/type/{productType}", product.getProductType()));
+        assertWithinBudget(get("/api/products/customizable"));
+    }
+
+    @Test
+    void categoryAndHamperBoxEndpoints() throws Exception {
+        assertWithinBudget(get("/api/categories"));
+        assertWithinBudget(get("/api/categories/{id}", products.get(0).getCategory().getId()));
+        assertWithinBudget(get("/api/hamper-boxes"));
+        assertWithinBudget(get("/api/hamper-boxes/{id}", hamperBox.getId()));
+    }
+
+    @Test
+    void catalogChanges() throws Exception {
+        assertWithinBudget(get("/api/catalog/changes"));
+    }
+
+    @Test
+    void orderCreation() throws Exception {
+        assertWithinBudget(post("/api/orders/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(orderRequest(false))));
+
+        MockMultipartFile orderPart = new MockMultipartFile("order", "", MediaType.APPLICATION_JSON_VALUE,
+                objectMapper.writeValueAsBytes(orderRequest(true)));
+        MockMultipartFile screenshot = new MockMultipartFile("screenshot-0", "hamper.png",
+                MediaType.IMAGE_PNG_VALUE, png());
+        assertWithinBudget(multipart("/api/orders/create").file(orderPart).file(screenshot));
+    }
+
+    @Test
+    void orderLookups() throws Exception {
+        assertWithinBudget(get("/api/orders").with(ADMIN));
+        assertWithinBudget(get("/api/orders/status/{status}", order.get("status").asText())
+                .with(ADMIN));
+        assertWithinBudget(get("/api/orders/{id}", order.get("id").asLong()).with(ADMIN));
+        assertWithinBudget(get("/api/orders/order-number/{orderNumber}", order.get("orderNumber").asText())
+                .with(ADMIN));
+        assertWithinBudget(get("/api/orders/customer/{phone}", CUSTOMER_PHONE).with(ADMIN));
+        assertWithinBudget(get("/api/orders/track/{orderNumber}", order.get("orderNumber").asText()));
+    }
+
+    @Test
+    void salesDashboard() throws Exception {
+        assertWithinBudget(get("/api/admin/dashboard/sales").with(ADMIN));
+    }
+
+    private void assertWithinBudget(MockHttpServletRequestBuilder request) throws Exception {
+        cacheManager.getCacheNames().forEach(name -> Objects.requireNonNull(cacheManager.getCache(name)).clear());
+        STATEMENTS.start();
+        MvcResult result;
+        try {
+            result = mockMvc.perform(request).andReturn();
+        } finally {
+            STATEMENTS.stop();
+        }
+        String call = result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+        assertThat(result.getResponse().getStatus()).as(call).isBetween(200, 299);
+
+        HandlerMethod handler = (HandlerMethod) result.getHandler();
+        StatementBudget budget = handler.getMethodAnnotation(StatementBudget.class);
+        assertThat(budget).as("%s has a @StatementBudget", call).isNotNull();
+        covered.add(handler.getMethod());
+        assertThat(STATEMENTS.count()).as("statements run by %s", call).isLessThanOrEqualTo(budget.value());
+    }
+
+    private CreateOrderRequest orderRequest(boolean withScreenshot) {
+        Product first = products.get(0);
+        Product second = products.get(1);
+        return CreateOrderRequest.builder()
+                .customerName("Budget Test")
+                .customerPhone(CUSTOMER_PHONE)
+                .deliveryAddress("1 Test Street")
+                .orderItems(List.of(
+                        OrderItemRequest.builder().productId(first.getId()).quantity(1).build(),
+                        OrderItemRequest.builder().productId(second.getId()).quantity(2).build()))
+                .orderHampers(List.of(OrderHamperRequest.builder()
+                        .hamperBoxId(hamperBox.getId())
+                        .hamperName("Test Hamper")
+                        .hamperData("{\"items\":[{\"productId\":" + first.getId() + ",\"quantity\":1}]}")
+                        .withArrangement(withScreenshot)
+                        .build()))
+                .build();
+    }
+
+    private static byte[] png() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Wraps the application DataSource so every statement executed on the measuring thread is
+     * counted, whether it comes from Hibernate or JdbcTemplate; background work is ignored
+     */
+    @TestConfiguration
+    static class CountStatements {
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? STATEMENTS.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    static class StatementCounter {
+
+        private final AtomicInteger count = new AtomicInteger();
+        private volatile Thread measuring;
+
+        void start() {
+            count.set(0);
+            measuring = Thread.currentThread();
+        }
+
+        void stop() {
+            measuring = null;
+        }
+
+        int count() {
+            return count.get();
+        }
+
+        DataSource wrap(DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (method, result) ->
+                    result instanceof Connection connection ? proxy(Connection.class, connection, this::statement) : result);
+        }
+
+        private Object statement(Method method, Object result) {
+            if (result instanceof CallableStatement statement) {
+                return proxy(CallableStatement.class, statement, this::execution);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return proxy(PreparedStatement.class, statement, this::execution);
+            }
+            if (result instanceof Statement statement) {
+                return proxy(Statement.class, statement, this::execution);
+            }
+            return result;
+        }
+
+        // A JDBC batch is one round trip, so executeBatch counts once
+        private Object execution(Method method, Object result) {
+            if (method.getName().startsWith("execute") && Thread.currentThread() == measuring) {
+                count.incrementAndGet();
+            }
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, AfterCall afterCall) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                return afterCall.apply(method, result);
+            };
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+
+        private interface AfterCall {
+            Object apply(Method method, Object result) throws Exception;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.chinggizz.service;
+
+import com.chinggizz.dto.CreateOrderRequest;
+import com.chinggizz.dto.OrderDTO;
+import com.chinggizz.dto.OrderItemRequest;
+import com.chinggizz.entity.SalesRollup;
+import com.chinggizz.enums.OrderStatus;
+import com.chinggizz.enums.RollupDimension;
+import com.chinggizz.repository.ProductRepository;
+import com.chinggizz.repository.SalesRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Sales rollup deltas that end up queued behind a rebuild whose snapshot already counted them
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "spring.datasource.url="
+        + "jdbc:h2:mem:sales-rollup;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class SalesRollupServiceTest {
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void statusChangeQueuedBehindARebuildIsNotCountedTwice() throws Exception {
+        OrderDTO order = orderService.createOrder(CreateOrderRequest.builder()
+                .customerName("Rollup Test")
+                .customerPhone("9876500000")
+                .deliveryAddress("1 Test Street")
+                .orderItems(List.of(OrderItemRequest.builder()
+                        .productId(productRepository.findAll().get(0).getId())
+                        .quantity(1)
+                        .build()))
+                .build());
+        ThreadPoolExecutor writer = (ThreadPoolExecutor) ReflectionTestUtils.getField(salesRollupService, "writer");
+        drain(writer);
+        assertThat(statusCounts()).containsEntry("NEW", 1L);
+
+        // Hold the writer so the rebuild and the status delta queue up behind it
+        CountDownLatch release = new CountDownLatch(1);
+        writer.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        CompletableFuture<Integer> rebuild = new CompletableFuture<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            // Runs after the status change has committed but before its delta is queued
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    Thread.ofPlatform().start(() -> rebuild.complete(salesRollupService.rebuild()));
+                    while (writer.getQueue().isEmpty()) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            orderService.updateOrderStatus(order.getId(), OrderStatus.CONFIRMED);
+        });
+        assertThat(writer.getQueue()).hasSize(2);
+        release.countDown();
+        rebuild.get(10, TimeUnit.SECONDS);
+        drain(writer);
+
+        // The rebuild already counted the order as CONFIRMED; applying the delta again would leave NEW at -1
+        assertThat(statusCounts()).containsOnly(entry("CONFIRMED", 1L));
+
+        // Changes committed after the rebuild are still applied
+        orderService.updateOrderStatus(order.getId(), OrderStatus.IN_PROGRESS);
+        drain(writer);
+        assertThat(statusCounts()).containsEntry("CONFIRMED", 0L).containsEntry("IN_PROGRESS", 1L);
+    }
+
+    private Map<String, Long> statusCounts() {
+        LocalDate today = LocalDate.now();
+        return salesRollupRepository.findByDimensionInAndRollupDateBetweenOrderByRollupDateAsc(
+                        EnumSet.of(RollupDimension.STATUS), today, today).stream()
+                .collect(Collectors.toMap(SalesRollup::getDimensionKey, SalesRollup::getOrderCount));
+    }
+
+    private static void drain(ThreadPoolExecutor writer) throws Exception {
+        writer.submit(() -> { }).get(10, TimeUnit.SECONDS);
+    }
+}
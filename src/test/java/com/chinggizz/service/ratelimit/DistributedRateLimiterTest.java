@@ -0,0 +1,125 @@
+package com.chinggizz.service.ratelimit;
+
+import com.chinggizz.ChinggizzApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application instances sharing one embedded database in app.rate-limit.mode=jdbc must
+ * together allow a client no more than a single route budget
+ */
+class DistributedRateLimiterTest {
+
+    private static final String DB_URL = "jdbc:h2:mem:shared-rate-limit;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+            + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+    private static final int LOGIN_CAPACITY = 10;
+    private static final String LOGIN_BODY = "{\"username\":\"admin\",\"password\":\"admin123\"}";
+
+    private static ConfigurableApplicationContext first;
+    private static ConfigurableApplicationContext second;
+    private static Connection keepAlive;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void startInstances() throws Exception {
+        keepAlive = DriverManager.getConnection(DB_URL, "sa", "");
+        String migration = Files.readString(Path.of("database/migrations/add_rate_limit_buckets.sql"));
+        try (Statement statement = keepAlive.createStatement()) {
+            for (String sql : migration.replaceAll("(?m)^--.*$", "").split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+        // The first instance creates and seeds the schema, the second joins it as is
+        first = start("create");
+        second = start("none");
+    }
+
+    @AfterAll
+    static void stopInstances() throws Exception {
+        if (second != null) {
+            second.close();
+        }
+        if (first != null) {
+            first.close();
+        }
+        keepAlive.close();
+    }
+
+    @Test
+    void instancesShareOneBudgetPerClient() throws Exception {
+        List<Integer> statuses = loginAlternately("203.0.113.10", 2 * LOGIN_CAPACITY);
+
+        assertThat(statuses.stream().filter(status -> status == 200)).hasSize(LOGIN_CAPACITY);
+        assertThat(statuses.stream().filter(status -> status == 429)).hasSize(LOGIN_CAPACITY);
+        // Both instances served part of the budget
+        assertThat(statuses.subList(0, 2)).containsOnly(200);
+
+        Long tokensLeft = new JdbcTemplate(first.getBean(DataSource.class)).queryForObject(
+                "SELECT tokens FROM rate_limit_buckets WHERE bucket_key = ?", Long.class,
+                "/api/auth/login:203.0.113.10");
+        assertThat(tokensLeft).isZero();
+    }
+
+    @Test
+    void clientsKeepSeparateBudgetsAcrossInstances() throws Exception {
+        assertThat(loginAlternately("203.0.113.20", 2 * LOGIN_CAPACITY).stream().filter(status -> status == 200))
+                .hasSize(LOGIN_CAPACITY);
+
+        // Tokens are reserved in batches, so a client can hit a refusal on one instance while the
+        // other still holds a token for it; across both it still gets exactly its budget
+        List<Integer> other = loginAlternately("203.0.113.21", 2 * LOGIN_CAPACITY);
+        assertThat(other.get(0)).isEqualTo(200);
+        assertThat(other.stream().filter(status -> status == 200)).hasSize(LOGIN_CAPACITY);
+    }
+
+    private List<Integer> loginAlternately(String clientAddress, int requests) throws Exception {
+        List<Integer> statuses = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            ConfigurableApplicationContext instance = i % 2 == 0 ? first : second;
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl(instance) + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .header("X-Forwarded-For", clientAddress)
+                    .POST(HttpRequest.BodyPublishers.ofString(LOGIN_BODY))
+                    .build();
+            statuses.add(client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+        }
+        return statuses;
+    }
+
+    private static String baseUrl(ConfigurableApplicationContext instance) {
+        return "http://localhost:" + instance.getEnvironment().getProperty("local.server.port");
+    }
+
+    private static ConfigurableApplicationContext start(String ddlAuto) {
+        // Arguments rather than default properties, which application.yml would override
+        return new SpringApplicationBuilder(ChinggizzApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + DB_URL,
+                        "--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                        "--app.rate-limit.mode=jdbc",
+                        "--app.rate-limit.trusted-proxies=1");
+    }
+}
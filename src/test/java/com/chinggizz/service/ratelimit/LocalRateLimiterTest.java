@@ -0,0 +1,67 @@
+package com.chinggizz.service.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * LocalRateLimiter under a flood of distinct (spoofed) client keys
+ */
+class LocalRateLimiterTest {
+
+    private static final int FLOOD_KEYS = 1_000_000;
+    private static final long MAX_CLIENTS = 20_000;
+    private static final long CAPACITY = 10;
+
+    @Test
+    void floodOfDistinctKeysKeepsTheBucketStoreBounded() {
+        LocalRateLimiter limiter = new LocalRateLimiter(CAPACITY, Duration.ofMinutes(1), MAX_CLIENTS,
+                Duration.ofMinutes(10));
+
+        for (int i = 0; i < FLOOD_KEYS; i++) {
+            assertThat(limiter.tryConsume(address(i))).isTrue();
+            if (i % 100_000 == 0) {
+                assertThat(limiter.trackedClients()).isLessThanOrEqualTo(MAX_CLIENTS);
+            }
+        }
+
+        assertThat(limiter.trackedClients()).isLessThanOrEqualTo(MAX_CLIENTS);
+    }
+
+    @Test
+    void activeClientStaysLimitedWhileTheFloodEvictsBuckets() {
+        LocalRateLimiter limiter = new LocalRateLimiter(CAPACITY, Duration.ofMinutes(1), MAX_CLIENTS,
+                Duration.ofMinutes(10));
+        String abuser = "198.51.100.7";
+        for (int i = 0; i < CAPACITY; i++) {
+            assertThat(limiter.tryConsume(abuser)).isTrue();
+        }
+
+        // Evicting the abuser's bucket would hand it a fresh budget; its frequent use must keep it resident
+        for (int i = 0; i < FLOOD_KEYS; i++) {
+            limiter.tryConsume(address(i));
+            if (i % 1_000 == 0) {
+                assertThat(limiter.tryConsume(abuser)).as("abuser after %d flood keys", i).isFalse();
+            }
+        }
+        assertThat(limiter.trackedClients()).isLessThanOrEqualTo(MAX_CLIENTS);
+    }
+
+    @Test
+    void eachClientGetsItsOwnBudget() {
+        LocalRateLimiter limiter = new LocalRateLimiter(CAPACITY, Duration.ofMinutes(1), MAX_CLIENTS,
+                Duration.ofMinutes(10));
+        for (int i = 0; i < CAPACITY; i++) {
+            assertThat(limiter.tryConsume("203.0.113.1")).isTrue();
+        }
+        assertThat(limiter.tryConsume("203.0.113.1")).isFalse();
+        assertThat(limiter.tryConsume("203.0.113.2")).isTrue();
+    }
+
+    // Distinct IPv4 addresses from 10.0.0.0/8
+    private static String address(int i) {
+        return "10." + ((i >> 16) & 0xff) + "." + ((i >> 8) & 0xff) + "." + (i & 0xff);
+    }
+}
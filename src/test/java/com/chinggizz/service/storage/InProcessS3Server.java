@@ -0,0 +1,363 @@
+package com.chinggizz.service.storage;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Minimal in-process stand-in for the S3 REST API, enough for S3ObjectStore
+ * Path-style requests only. Every request's SigV4 signature (header or presigned query) is
+ * recomputed independently of S3RequestSigner and rejected with 403 when it does not match.
+ */
+class InProcessS3Server implements AutoCloseable {
+
+    static final String ACCESS_KEY = "test-access-key";
+    static final String SECRET_KEY = "test-secret-key";
+    static final String REGION = "eu-west-1";
+    static final String BUCKET = "uploads";
+
+    private static final Pattern AUTHORIZATION = Pattern.compile(
+            "AWS4-HMAC-SHA256 Credential=([^,]+), SignedHeaders=([^,]+), Signature=([0-9a-f]+)");
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+
+    private final HttpServer server;
+    private final int listPageSize;
+    private final Map<String, StoredObject> objects = new ConcurrentSkipListMap<>();
+    private final Map<String, SortedMap<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+    private final Map<String, String> uploadContentTypes = new ConcurrentHashMap<>();
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> rejected = Collections.synchronizedList(new ArrayList<>());
+    private volatile int failingPartNumber = -1;
+
+    InProcessS3Server(int listPageSize) throws IOException {
+        this.listPageSize = listPageSize;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.createContext("/", this::handle);
+        this.server.start();
+    }
+
+    String endpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    StoredObject object(String key) {
+        return objects.get(key);
+    }
+
+    void putObject(String key, byte[] data) {
+        objects.put(key, new StoredObject(data, "application/octet-stream", null, now()));
+    }
+
+    void setLastModified(String key, Instant lastModified) {
+        objects.computeIfPresent(key, (k, object) ->
+                new StoredObject(object.data(), object.contentType(), object.cacheControl(), lastModified));
+    }
+
+    void failPart(int partNumber) {
+        failingPartNumber = partNumber;
+    }
+
+    int pendingUploads() {
+        return uploads.size();
+    }
+
+    /**
+     * "METHOD /path?query" of every request received, in order
+     */
+    List<String> requests() {
+        return List.copyOf(requests);
+    }
+
+    /**
+     * Requests refused because of a bad or expired signature (with the reason) since the last call
+     */
+    List<String> takeRejected() {
+        synchronized (rejected) {
+            List<String> taken = List.copyOf(rejected);
+            rejected.clear();
+            return taken;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            URI uri = exchange.getRequestURI();
+            String method = exchange.getRequestMethod();
+            requests.add(method + " " + uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery()));
+
+            SortedMap<String, String> query = parseQuery(uri.getRawQuery());
+            String failure = verifySignature(exchange, query, body);
+            if (failure != null) {
+                rejected.add(method + " " + uri.getRawPath() + ": " + failure);
+                reply(exchange, 403, "<Error><Code>SignatureDoesNotMatch</Code></Error>");
+                return;
+            }
+
+            String path = uri.getPath();
+            if (!path.startsWith("/" + BUCKET)) {
+                reply(exchange, 404, "<Error><Code>NoSuchBucket</Code></Error>");
+                return;
+            }
+            String key = path.length() > BUCKET.length() + 2 ? path.substring(BUCKET.length() + 2) : "";
+            route(exchange, method, key, query, body);
+        }
+    }
+
+    private void route(HttpExchange exchange, String method, String key, SortedMap<String, String> query, byte[] body)
+            throws IOException {
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (key.isEmpty() && "GET".equals(method)) {
+            list(exchange, query);
+        } else if ("POST".equals(method) && query.containsKey("uploads")) {
+            String uploadId = UUID.randomUUID().toString();
+            uploads.put(uploadId, new TreeMap<>());
+            uploadContentTypes.put(uploadId, contentType);
+            reply(exchange, 200, "<InitiateMultipartUploadResult><UploadId>" + uploadId
+                    + "</UploadId></InitiateMultipartUploadResult>");
+        } else if ("PUT".equals(method) && query.containsKey("uploadId")) {
+            int partNumber = Integer.parseInt(query.get("partNumber"));
+            SortedMap<Integer, byte[]> parts = uploads.get(query.get("uploadId"));
+            if (parts == null) {
+                reply(exchange, 404, "<Error><Code>NoSuchUpload</Code></Error>");
+            } else if (partNumber == failingPartNumber) {
+                reply(exchange, 500, "<Error><Code>InternalError</Code></Error>");
+            } else {
+                parts.put(partNumber, body);
+                exchange.getResponseHeaders().set("ETag", "\"" + hex(digest("MD5", body)) + "\"");
+                reply(exchange, 200, "");
+            }
+        } else if ("POST".equals(method) && query.containsKey("uploadId")) {
+            SortedMap<Integer, byte[]> parts = uploads.remove(query.get("uploadId"));
+            if (parts == null) {
+                reply(exchange, 404, "<Error><Code>NoSuchUpload</Code></Error>");
+                return;
+            }
+            int size = parts.values().stream().mapToInt(part -> part.length).sum();
+            byte[] data = new byte[size];
+            int offset = 0;
+            for (byte[] part : parts.values()) {
+                System.arraycopy(part, 0, data, offset, part.length);
+                offset += part.length;
+            }
+            objects.put(key, new StoredObject(data, uploadContentTypes.remove(query.get("uploadId")), null, now()));
+            reply(exchange, 200, "<CompleteMultipartUploadResult/>");
+        } else if ("DELETE".equals(method) && query.containsKey("uploadId")) {
+            uploads.remove(query.get("uploadId"));
+            uploadContentTypes.remove(query.get("uploadId"));
+            reply(exchange, 204, null);
+        } else if ("PUT".equals(method)) {
+            String copySource = exchange.getRequestHeaders().getFirst("x-amz-copy-source");
+            String cacheControl = exchange.getRequestHeaders().getFirst("Cache-Control");
+            if (copySource != null) {
+                StoredObject source = objects.get(URLDecoder.decode(
+                        copySource.substring(BUCKET.length() + 2), StandardCharsets.UTF_8));
+                if (source == null) {
+                    reply(exchange, 404, "<Error><Code>NoSuchKey</Code></Error>");
+                    return;
+                }
+                objects.put(key, new StoredObject(source.data(), contentType, cacheControl, now()));
+                reply(exchange, 200, "<CopyObjectResult/>");
+            } else {
+                objects.put(key, new StoredObject(body, contentType, cacheControl, now()));
+                reply(exchange, 200, "");
+            }
+        } else if ("GET".equals(method) || "HEAD".equals(method)) {
+            StoredObject object = objects.get(key);
+            if (object == null) {
+                reply(exchange, 404, "<Error><Code>NoSuchKey</Code></Error>");
+                return;
+            }
+            exchange.getResponseHeaders().set("Last-Modified",
+                    DateTimeFormatter.RFC_1123_DATE_TIME.format(object.lastModified().atZone(ZoneOffset.UTC)));
+            if (object.contentType() != null) {
+                exchange.getResponseHeaders().set("Content-Type", object.contentType());
+            }
+            if ("HEAD".equals(method)) {
+                exchange.getResponseHeaders().set("Content-Length", String.valueOf(object.data().length));
+                exchange.sendResponseHeaders(200, -1);
+            } else {
+                exchange.sendResponseHeaders(200, object.data().length);
+                exchange.getResponseBody().write(object.data());
+            }
+        } else if ("DELETE".equals(method)) {
+            objects.remove(key);
+            reply(exchange, 204, null);
+        } else {
+            reply(exchange, 405, "<Error><Code>MethodNotAllowed</Code></Error>");
+        }
+    }
+
+    private void list(HttpExchange exchange, SortedMap<String, String> query) throws IOException {
+        String prefix = query.getOrDefault("prefix", "");
+        List<String> keys = objects.keySet().stream().filter(key -> key.startsWith(prefix)).toList();
+        int start = query.containsKey("continuation-token") ? Integer.parseInt(query.get("continuation-token")) : 0;
+        int end = Math.min(keys.size(), start + listPageSize);
+
+        StringBuilder xml = new StringBuilder("<ListBucketResult>");
+        for (String key : keys.subList(start, end)) {
+            StoredObject object = objects.get(key);
+            xml.append("<Contents><Key>").append(key).append("</Key><Size>").append(object.data().length)
+                    .append("</Size><LastModified>").append(object.lastModified()).append("</LastModified></Contents>");
+        }
+        xml.append("<IsTruncated>").append(end < keys.size()).append("</IsTruncated>");
+        if (end < keys.size()) {
+            xml.append("<NextContinuationToken>").append(end).append("</NextContinuationToken>");
+        }
+        reply(exchange, 200, xml.append("</ListBucketResult>").toString());
+    }
+
+    private String verifySignature(HttpExchange exchange, SortedMap<String, String> query, byte[] body) {
+        String credential;
+        String amzDate;
+        List<String> signedHeaders;
+        String signature;
+        String payloadHash;
+        if (query.containsKey("X-Amz-Signature")) {
+            query = new TreeMap<>(query);
+            signature = query.remove("X-Amz-Signature");
+            credential = query.get("X-Amz-Credential");
+            amzDate = query.get("X-Amz-Date");
+            signedHeaders = List.of(query.get("X-Amz-SignedHeaders").split(";"));
+            payloadHash = UNSIGNED_PAYLOAD;
+            Instant signedAt = LocalDateTime.parse(amzDate, AMZ_DATE).toInstant(ZoneOffset.UTC);
+            if (Instant.now().isAfter(signedAt.plusSeconds(Long.parseLong(query.get("X-Amz-Expires"))))) {
+                return "presigned URL expired";
+            }
+        } else {
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            Matcher matcher = authorization == null ? null : AUTHORIZATION.matcher(authorization);
+            if (matcher == null || !matcher.matches()) {
+                return "missing Authorization";
+            }
+            credential = matcher.group(1);
+            signedHeaders = List.of(matcher.group(2).split(";"));
+            signature = matcher.group(3);
+            amzDate = exchange.getRequestHeaders().getFirst("x-amz-date");
+            payloadHash = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+            if (!UNSIGNED_PAYLOAD.equals(payloadHash) && !hex(digest("SHA-256", body)).equals(payloadHash)) {
+                return "x-amz-content-sha256 does not match the body";
+            }
+        }
+        String scope = amzDate.substring(0, 8) + "/" + REGION + "/s3/aws4_request";
+        if (!(ACCESS_KEY + "/" + scope).equals(credential)) {
+            return "unexpected credential " + credential;
+        }
+
+        String canonicalQuery = query.entrySet().stream()
+                .map(entry -> encode(entry.getKey()) + "=" + encode(entry.getValue()))
+                .collect(Collectors.joining("&"));
+        StringBuilder canonicalHeaders = new StringBuilder();
+        for (String name : signedHeaders) {
+            String value = exchange.getRequestHeaders().getFirst(name);
+            canonicalHeaders.append(name).append(':').append(value == null ? "" : value.trim()).append('\n');
+        }
+        String canonicalRequest = String.join("\n", exchange.getRequestMethod(), exchange.getRequestURI().getRawPath(),
+                canonicalQuery, canonicalHeaders.toString(), String.join(";", signedHeaders), payloadHash);
+        String stringToSign = String.join("\n", "AWS4-HMAC-SHA256", amzDate, scope,
+                hex(digest("SHA-256", canonicalRequest.getBytes(StandardCharsets.UTF_8))));
+
+        byte[] key = hmac(("AWS4" + SECRET_KEY).getBytes(StandardCharsets.UTF_8), amzDate.substring(0, 8));
+        for (String part : List.of(REGION, "s3", "aws4_request")) {
+            key = hmac(key, part);
+        }
+        String expected = hex(hmac(key, stringToSign));
+        return expected.equals(signature) ? null : "signature mismatch for canonical request:\n" + canonicalRequest;
+    }
+
+    private static SortedMap<String, String> parseQuery(String rawQuery) {
+        SortedMap<String, String> query = new TreeMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8)
+                .replace("+", "%20").replace("*", "%2A").replace("%7E", "~");
+    }
+
+    private static void reply(HttpExchange exchange, int status, String body) throws IOException {
+        if (body == null || "HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] digest(String algorithm, byte[] data) {
+        try {
+            return MessageDigest.getInstance(algorithm).digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    // S3 reports modification times with one-second resolution
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    record StoredObject(byte[] data, String contentType, String cacheControl, Instant lastModified) {}
+}
@@ -0,0 +1,191 @@
+package com.chinggizz.service.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * S3ObjectStore against an in-process S3 stand-in that checks every request's SigV4 signature
+ */
+class S3ObjectStoreTest {
+
+    private static final int MB = 1024 * 1024;
+    private static final String PREFIX = "products/";
+    private static final int LIST_PAGE_SIZE = 2;
+
+    @TempDir
+    Path tempDir;
+
+    private InProcessS3Server s3;
+    private S3ObjectStore store;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        s3 = new InProcessS3Server(LIST_PAGE_SIZE);
+        store = new S3ObjectStore(s3.endpoint(), InProcessS3Server.REGION, InProcessS3Server.BUCKET,
+                InProcessS3Server.ACCESS_KEY, InProcessS3Server.SECRET_KEY, PREFIX, true, 5L * MB, true,
+                Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void stopServer() {
+        try {
+            assertThat(s3.takeRejected()).as("requests with bad signatures").isEmpty();
+        } finally {
+            s3.close();
+        }
+    }
+
+    @Test
+    void putStatFetchAndDeleteRoundTrip() throws IOException {
+        byte[] content = randomBytes(64 * 1024);
+        store.put("photo.png", file("photo.png", content), "image/png");
+
+        InProcessS3Server.StoredObject stored = s3.object(PREFIX + "photo.png");
+        assertThat(stored.data()).isEqualTo(content);
+        assertThat(stored.contentType()).isEqualTo("image/png");
+        assertThat(stored.cacheControl()).contains("immutable");
+
+        ObjectStore.StoredObject stat = store.stat("photo.png").orElseThrow();
+        assertThat(stat.size()).isEqualTo(content.length);
+        assertThat(stat.lastModified()).isEqualTo(stored.lastModified());
+
+        Path fetched = tempDir.resolve("fetched");
+        assertThat(store.fetch("photo.png", fetched)).isTrue();
+        assertThat(Files.readAllBytes(fetched)).isEqualTo(content);
+
+        store.delete("photo.png");
+        assertThat(store.stat("photo.png")).isEmpty();
+        assertThat(store.fetch("photo.png", tempDir.resolve("missing"))).isFalse();
+        // Deleting what is already gone is not an error
+        store.delete("photo.png");
+    }
+
+    @Test
+    void keysAreEncodedTheWayTheyAreSigned() throws IOException {
+        byte[] content = randomBytes(1024);
+        store.put("a b+c~d.png", file("odd", content), "image/png");
+
+        assertThat(s3.object(PREFIX + "a b+c~d.png").data()).isEqualTo(content);
+        assertThat(store.stat("a b+c~d.png")).isPresent();
+    }
+
+    @Test
+    void largeFilesGoUpAsMultipartUploads() throws IOException {
+        byte[] content = randomBytes(12 * MB + 123);
+        store.put("large.png", file("large.png", content), "image/png");
+
+        assertThat(s3.object(PREFIX + "large.png").data()).isEqualTo(content);
+        assertThat(s3.object(PREFIX + "large.png").contentType()).isEqualTo("image/png");
+        assertThat(s3.requests()).filteredOn(request -> request.startsWith("PUT") && request.contains("partNumber="))
+                .hasSize(3);
+        assertThat(s3.pendingUploads()).isZero();
+    }
+
+    @Test
+    void failedPartAbortsTheMultipartUpload() throws IOException {
+        s3.failPart(2);
+        Path source = file("large.png", randomBytes(11 * MB));
+
+        assertThatThrownBy(() -> store.put("large.png", source, "image/png"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("UploadPart large.png");
+        assertThat(s3.object(PREFIX + "large.png")).isNull();
+        assertThat(s3.pendingUploads()).isZero();
+        assertThat(s3.requests()).last().asString().startsWith("DELETE").contains("uploadId=");
+    }
+
+    @Test
+    void touchResetsLastModifiedAndKeepsTheContent() throws IOException {
+        byte[] content = randomBytes(2048);
+        store.put("reused.png", file("reused.png", content), "image/png");
+        Instant twoDaysAgo = Instant.now().minus(Duration.ofDays(2)).truncatedTo(ChronoUnit.SECONDS);
+        s3.setLastModified(PREFIX + "reused.png", twoDaysAgo);
+        assertThat(store.stat("reused.png").orElseThrow().lastModified()).isEqualTo(twoDaysAgo);
+
+        store.touch("reused.png", "image/png");
+
+        assertThat(store.stat("reused.png").orElseThrow().lastModified()).isAfter(Instant.now().minusSeconds(60));
+        assertThat(s3.object(PREFIX + "reused.png").data()).isEqualTo(content);
+        assertThat(s3.object(PREFIX + "reused.png").contentType()).isEqualTo("image/png");
+    }
+
+    @Test
+    void listPagesThroughTheBucketAndSkipsOtherKeys() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            s3.putObject(PREFIX + "image-" + i + ".png", randomBytes(10 + i));
+        }
+        s3.putObject(PREFIX + "nested/ignored.png", randomBytes(10));
+        s3.putObject("screenshots/other.png", randomBytes(10));
+
+        List<ObjectStore.StoredObject> listed = new ArrayList<>();
+        store.list(listed::add);
+
+        assertThat(listed).extracting(ObjectStore.StoredObject::name)
+                .containsExactly("image-0.png", "image-1.png", "image-2.png", "image-3.png", "image-4.png");
+        assertThat(listed).extracting(ObjectStore.StoredObject::size).containsExactly(10L, 11L, 12L, 13L, 14L);
+        assertThat(s3.requests()).filteredOn(request -> request.contains("list-type=2")).hasSize(3);
+    }
+
+    @Test
+    void presignedUrlsAreStableWithinTheirWindowAndServeTheObject() throws Exception {
+        byte[] content = randomBytes(4096);
+        store.put("direct.png", file("direct.png", content), "image/png");
+
+        ObjectStore.DirectDownload download = store.directDownload("direct.png").orElseThrow();
+        assertThat(store.directDownload("direct.png").orElseThrow().url()).isEqualTo(download.url());
+        assertThat(download.cacheFor()).isEqualTo(Duration.ofMinutes(30));
+
+        HttpClient client = HttpClient.newHttpClient();
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(download.url()).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo(content);
+
+        URI tampered = URI.create(download.url().toString().replace("direct.png", "other.png"));
+        HttpResponse<Void> rejected = client.send(HttpRequest.newBuilder(tampered).build(),
+                HttpResponse.BodyHandlers.discarding());
+        assertThat(rejected.statusCode()).isEqualTo(403);
+        assertThat(s3.takeRejected()).hasSize(1);
+    }
+
+    @Test
+    void wrongCredentialsSurfaceAsIOExceptions() {
+        S3ObjectStore misconfigured = new S3ObjectStore(s3.endpoint(), InProcessS3Server.REGION,
+                InProcessS3Server.BUCKET, InProcessS3Server.ACCESS_KEY, "wrong-secret", PREFIX, true, 5L * MB, true,
+                Duration.ofHours(1));
+
+        assertThatThrownBy(() -> misconfigured.put("photo.png", file("photo.png", randomBytes(16)), "image/png"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("HTTP 403");
+        assertThat(s3.takeRejected()).hasSize(1);
+    }
+
+    private Path file(String name, byte[] content) throws IOException {
+        return Files.write(tempDir.resolve(name), content);
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,201 @@
+package com.chinggizz.util;
+
+import com.chinggizz.exception.InvalidHamperDataException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * HamperItemsParser against the tree-based parsing it replaced, on payloads shaped like the ones
+ * HamperBuilderPage sends (3D layout per item, optionally an embedded base64 screenshot)
+ */
+class HamperItemsParserTest {
+
+    private static final Logger log = LoggerFactory.getLogger(HamperItemsParserTest.class);
+    private static final int ITEMS = 200;
+    private static final int SCREENSHOT_BYTES = 1_500_000;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 200;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HamperItemsParser parser = new HamperItemsParser(objectMapper);
+
+    @Test
+    void extractsSameItemsAsTreeParser() throws Exception {
+        for (String payload : List.of(hamperPayload(false), hamperPayload(true))) {
+            HamperItemsParser.HamperItems items = parser.parse(payload);
+            List<long[]> expected = parseWithTree(payload);
+
+            assertThat(items.size()).isEqualTo(expected.size());
+            for (int i = 0; i < items.size(); i++) {
+                assertThat(items.productId(i)).isEqualTo(expected.get(i)[0]);
+                assertThat((long) items.quantity(i)).isEqualTo(expected.get(i)[1]);
+            }
+        }
+    }
+
+    @Test
+    void streamingAllocatesLessThanTreeOnLargePayloads() throws Exception {
+        for (boolean withScreenshot : new boolean[] {false, true}) {
+            String payload = hamperPayload(withScreenshot);
+
+            Measurement tree = measure(payload, this::parseWithTreeUnchecked);
+            Measurement streaming = measure(payload, parser::parse);
+
+            assertThat(streaming.bytesPerParse())
+                    .as("bytes per parse %s screenshot, %d chars: tree %s vs streaming %s",
+                            withScreenshot ? "with" : "without", payload.length(), tree, streaming)
+                    .isLessThan(tree.bytesPerParse());
+        }
+    }
+
+    /**
+     * Wall-clock comparison, too noisy for shared CI machines; run with -Dbenchmarks=true
+     */
+    @Test
+    @Tag("benchmark")
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void streamingRunsFasterThanTreeOnLargePayloads() throws Exception {
+        for (boolean withScreenshot : new boolean[] {false, true}) {
+            String payload = hamperPayload(withScreenshot);
+
+            Measurement tree = measure(payload, this::parseWithTreeUnchecked);
+            Measurement streaming = measure(payload, parser::parse);
+
+            String label = (withScreenshot ? "with" : "without") + " screenshot, " + payload.length() + " chars: "
+                    + "tree " + tree + " vs streaming " + streaming;
+            log.info("hamperData parsing {}", label);
+            assertThat(streaming.nanosPerParse()).as(label).isLessThan(tree.nanosPerParse());
+        }
+    }
+
+    @Test
+    void reportsPathAndPositionOfInvalidItems() {
+        assertThatThrownBy(() -> parser.parse("{\"items\":[{\"productId\":1,\"quantity\":2},\n{\"productId\":2,\"quantity\":\"two\"}]}"))
+                .isInstanceOf(InvalidHamperDataException.class)
+                .hasMessageContaining("$.items[1].quantity")
+                .hasMessageContaining("line 2");
+
+        assertThatThrownBy(() -> parser.parse("{\"items\":[{\"quantity\":1}]}"))
+                .isInstanceOf(InvalidHamperDataException.class)
+                .hasMessageContaining("$.items[0]")
+                .hasMessageContaining("productId is required");
+
+        assertThatThrownBy(() -> parser.parse("{\"items\":[{\"productId\":1,\"quantity\":0}]}"))
+                .isInstanceOf(InvalidHamperDataException.class)
+                .hasMessageContaining("quantity must be at least 1");
+
+        assertThatThrownBy(() -> parser.parse("{\"items\":[{\"productId\":1,"))
+                .isInstanceOf(InvalidHamperDataException.class)
+                .hasMessageContaining("line 1");
+    }
+
+    @Test
+    void missingItemsYieldsNoItems() {
+        assertThat(parser.parse("{\"hamperName\":\"Empty\",\"boxDetails\":{\"capacity\":4}}").size()).isZero();
+    }
+
+    private Measurement measure(String payload, Function<String, Object> parse) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Object sink = null;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink = parse.apply(payload);
+        }
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            sink = parse.apply(payload);
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        assertThat(sink).isNotNull();
+        return new Measurement(allocated / MEASURED_ROUNDS, nanos / MEASURED_ROUNDS);
+    }
+
+    // What OrderService.calculateHamperItemsTotal did before the streaming parser
+    private List<long[]> parseWithTree(String payload) throws Exception {
+        JsonNode itemsNode = objectMapper.readTree(payload).get("items");
+        List<long[]> items = new ArrayList<>();
+        for (JsonNode itemNode : itemsNode) {
+            items.add(new long[] {itemNode.get("productId").asLong(), itemNode.get("quantity").asInt()});
+        }
+        return items;
+    }
+
+    private Object parseWithTreeUnchecked(String payload) {
+        try {
+            return parseWithTree(payload);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String hamperPayload(boolean withScreenshot) throws Exception {
+        Random random = new Random(42);
+        ObjectNode hamper = objectMapper.createObjectNode();
+        hamper.put("hamperBoxId", 3);
+        hamper.put("hamperBoxName", "Transparent Box");
+        hamper.put("hamperBoxPrice", 349);
+        hamper.put("hamperName", "Birthday Surprise");
+        if (withScreenshot) {
+            byte[] image = new byte[SCREENSHOT_BYTES];
+            random.nextBytes(image);
+            hamper.put("screenshot", "data:image/png;base64," + Base64.getEncoder().encodeToString(image));
+        }
+
+        ArrayNode items = hamper.putArray("items");
+        for (int i = 0; i < ITEMS; i++) {
+            ObjectNode item = items.addObject();
+            item.put("productId", 1 + random.nextInt(40));
+            item.put("productName", "Product " + i);
+            item.put("price", 99 + random.nextInt(900));
+            item.put("quantity", 1 + random.nextInt(3));
+            ObjectNode position = item.putObject("position");
+            position.put("x", random.nextDouble() * 30);
+            position.put("y", random.nextDouble() * 20);
+            position.put("z", random.nextDouble() * 25);
+            ObjectNode rotation = item.putObject("rotation");
+            rotation.put("needsRotation", random.nextBoolean());
+            rotation.put("rotationAxis", "y");
+            rotation.put("rotationAngle", Math.PI / 2);
+            ObjectNode dimensions = item.putObject("dimensions");
+            dimensions.put("widthCm", 5 + random.nextInt(20));
+            dimensions.put("heightCm", 5 + random.nextInt(20));
+            dimensions.put("depthCm", 5 + random.nextInt(20));
+        }
+
+        ObjectNode boxDetails = hamper.putObject("boxDetails");
+        boxDetails.putArray("dimensions").add(3.0).add(2.0).add(2.5);
+        boxDetails.putArray("dimensionsCm").add(30).add(20).add(25);
+        boxDetails.put("capacity", ITEMS);
+        boxDetails.putArray("gridSize").add(10).add(10).add(2);
+        hamper.put("totalItems", ITEMS);
+        hamper.put("grandTotal", 54321.5);
+        return objectMapper.writeValueAsString(hamper);
+    }
+
+    private record Measurement(long bytesPerParse, long nanosPerParse) {
+
+        @Override
+        public String toString() {
+            return String.format("%.1f KB/parse, %.3f ms/parse", bytesPerParse / 1024.0, nanosPerParse / 1_000_000.0);
+        }
+    }
+}